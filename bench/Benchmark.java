@@ -0,0 +1,42 @@
+/**
+ * A benchmark of a hot path, run by {@link BenchmarkRunner}. Every iteration prepares its state untimed in
+ * {@link #setUp()} and then runs a fixed number of operations timed in {@link #run()}. Inputs come from fixed seeds, so
+ * every iteration and every run of a benchmark does the same work.
+ */
+public abstract class Benchmark {
+    private final String name;
+    private final int operationCount;
+
+    /**
+     * @param name           name the benchmark is selected and reported by
+     * @param operationCount number of operations performed by each run, which the time is reported per
+     */
+    protected Benchmark(String name, int operationCount) {
+        this.name = name;
+        this.operationCount = operationCount;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getOperationCount() {
+        return this.operationCount;
+    }
+
+    /**
+     * Prepares the state of the next iteration, outside of the measured time.
+     *
+     * @throws Exception if the state cannot be prepared
+     */
+    public void setUp() throws Exception {
+    }
+
+    /**
+     * Runs the measured operations once.
+     *
+     * @return a checksum of the results, which the runner consumes so that the work cannot be optimized away
+     * @throws Exception if the operations fail
+     */
+    public abstract long run() throws Exception;
+}
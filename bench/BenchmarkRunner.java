@@ -0,0 +1,99 @@
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Runs the benchmarks of the hot paths and reports the mean time per operation with its standard deviation.
+ * Without arguments every benchmark runs in a fresh JVM forked with the same options, so that the profile the JIT
+ * collected for one benchmark does not slow down or speed up the next; with benchmark names as arguments only those run,
+ * in this JVM. Each benchmark runs warm-up iterations before the measured ones.
+ */
+public class BenchmarkRunner {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final String REPORT_FORMAT = "%-28s %12s %12s %12s %10s%n";
+
+    // Sum of the checksums of every run, printed at the end so that no run can be optimized away.
+    private static long checksum;
+
+    public static void main(String[] args) throws Exception {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.addAll(StructureBenchmarks.all());
+        benchmarks.addAll(HandlerBenchmarks.all());
+
+        if (args.length == 0) {
+            printHeader();
+            for (Benchmark benchmark : benchmarks) {
+                fork(benchmark.getName());
+            }
+            return;
+        }
+
+        for (String benchmarkName : args) {
+            Benchmark benchmark = benchmarks.stream().filter(candidate -> candidate.getName().equals(benchmarkName))
+                    .findFirst().orElse(null);
+            if (Objects.isNull(benchmark)) {
+                System.out.println("Error: Unknown benchmark " + benchmarkName);
+                continue;
+            }
+            measure(benchmark);
+        }
+        System.out.println("# checksum " + checksum);
+    }
+
+    // Runs the warm-up and measured iterations of the benchmark and prints its timings per operation.
+    private static void measure(Benchmark benchmark) throws Exception {
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            benchmark.setUp();
+            checksum += benchmark.run();
+        }
+
+        double[] nanosPerOperation = new double[MEASUREMENT_ITERATIONS];
+        for (int iteration = 0; iteration < MEASUREMENT_ITERATIONS; iteration++) {
+            benchmark.setUp();
+            long startTime = System.nanoTime();
+            checksum += benchmark.run();
+            nanosPerOperation[iteration] = (double) (System.nanoTime() - startTime) / benchmark.getOperationCount();
+        }
+
+        double mean = 0;
+        double minimum = Double.MAX_VALUE;
+        for (double value : nanosPerOperation) {
+            mean += value / MEASUREMENT_ITERATIONS;
+            minimum = Math.min(minimum, value);
+        }
+        double variance = 0;
+        for (double value : nanosPerOperation) {
+            variance += (value - mean) * (value - mean) / (MEASUREMENT_ITERATIONS - 1);
+        }
+        System.out.printf(Locale.ROOT, REPORT_FORMAT, benchmark.getName(), format(mean), format(Math.sqrt(variance)),
+                format(minimum), benchmark.getOperationCount());
+    }
+
+    // Runs the benchmark in a child JVM with the same options and class path, sharing this process's console.
+    private static void fork(String benchmarkName) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkRunner.class.getName());
+        command.add(benchmarkName);
+
+        int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) {
+            System.out.println("Error: Benchmark " + benchmarkName + " exited with code " + exitCode);
+        }
+    }
+
+    private static void printHeader() {
+        System.out.printf(Locale.ROOT, REPORT_FORMAT, "benchmark", "ns/op", "+/- ns/op", "min ns/op", "ops");
+    }
+
+    private static String format(double nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos);
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Response sink for benchmarks that discards the responses, only counting the fragments and numbers appended so that
+ * writing them cannot be optimized away.
+ */
+public class DiscardingResponseSink implements ResponseSink {
+    private long appendedCount;
+
+    @Override
+    public ResponseSink append(String fragment) {
+        this.appendedCount += fragment.length();
+        return this;
+    }
+
+    @Override
+    public ResponseSink append(int value) {
+        this.appendedCount += value;
+        return this;
+    }
+
+    @Override
+    public void endResponse() {
+        this.appendedCount++;
+    }
+
+    /**
+     * Returns the count of what was appended so far and starts counting again.
+     *
+     * @return checksum of the discarded responses
+     */
+    public long takeCount() {
+        long count = this.appendedCount;
+        this.appendedCount = 0;
+        return count;
+    }
+}
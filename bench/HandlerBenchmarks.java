@@ -0,0 +1,243 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Benchmarks of the commands executed by {@link InputActionsHandler}, and of processing a whole input file end to end.
+ */
+public class HandlerBenchmarks {
+    private static final long SEED = 5536;
+    private static final int SEAT_COUNT = 1_000_000;
+    private static final int WAITLIST_SIZE = 1_000_000;
+    private static final int MAX_PRIORITY = 10;
+    private static final int FILE_COMMAND_COUNT = 2_000_000;
+    // Users per ReserveBatch filling a handler, at most the default group size ReserveBatch accepts.
+    private static final int FILL_BATCH_SIZE = 1_000_000;
+
+    /**
+     * @return the handler and end to end benchmarks.
+     */
+    public static List<Benchmark> all() {
+        return Arrays.asList(new ReserveCancelChurn(), new UpdatePriority(), new ExitWaitlist(), new ReleaseSeatsWide(),
+                new PrintReservations(), new ProcessFile());
+    }
+
+    // Handler with every seat reserved, by the users 1 to seatCount in seat order, and with waitlistSize more users waiting.
+    // The users are added in batches ReserveBatch accepts, and a handler not filled as asked fails the benchmark.
+    private static InputActionsHandler fullHandler(int seatCount, int waitlistSize) {
+        InputActionsHandler inputActionsHandler = new InputActionsHandler();
+        DiscardingResponseSink responses = new DiscardingResponseSink();
+        inputActionsHandler.initialize(seatCount, responses);
+        int userCount = seatCount + waitlistSize;
+        for (int firstUserId = 1; firstUserId <= userCount; firstUserId += FILL_BATCH_SIZE) {
+            inputActionsHandler.reserveBatch(firstUserId, Math.min(FILL_BATCH_SIZE, userCount - firstUserId + 1), 1, responses);
+        }
+
+        CommandMetrics metrics = new CommandMetrics();
+        inputActionsHandler.collectMetrics(metrics);
+        if (metrics.getReservationCount() != seatCount || metrics.getWaitlistSize() != waitlistSize) {
+            throw new IllegalStateException("Handler filled with " + metrics.getReservationCount() + " reservations and "
+                    + metrics.getWaitlistSize() + " waitlisted users instead of " + seatCount + " and " + waitlistSize);
+        }
+        return inputActionsHandler;
+    }
+
+    // Cancels random reservations of a full event, each immediately followed by a new user reserving the freed seat.
+    private static class ReserveCancelChurn extends Benchmark {
+        private InputActionsHandler inputActionsHandler;
+        private int[] seatOwners;
+        private int nextUserId;
+
+        ReserveCancelChurn() {
+            super("reserveCancelChurn", 2 * SEAT_COUNT);
+        }
+
+        @Override
+        public void setUp() {
+            this.inputActionsHandler = fullHandler(SEAT_COUNT, 0);
+            this.seatOwners = new int[SEAT_COUNT + 1];
+            for (int seatId = 1; seatId <= SEAT_COUNT; seatId++) {
+                this.seatOwners[seatId] = seatId;
+            }
+            this.nextUserId = SEAT_COUNT + 1;
+        }
+
+        @Override
+        public long run() {
+            Random random = new Random(SEED);
+            DiscardingResponseSink responses = new DiscardingResponseSink();
+            for (int operation = 0; operation < SEAT_COUNT; operation++) {
+                int seatId = 1 + random.nextInt(SEAT_COUNT);
+                this.inputActionsHandler.cancel(seatId, this.seatOwners[seatId], responses);
+                this.inputActionsHandler.reserve(this.nextUserId, 1 + random.nextInt(MAX_PRIORITY), responses);
+                this.seatOwners[seatId] = this.nextUserId++;
+            }
+            return responses.takeCount();
+        }
+    }
+
+    // Updates the priority of random users of a long waitlist.
+    private static class UpdatePriority extends Benchmark {
+        private InputActionsHandler inputActionsHandler;
+
+        UpdatePriority() {
+            super("updatePriority", WAITLIST_SIZE);
+        }
+
+        @Override
+        public void setUp() {
+            if (Objects.isNull(this.inputActionsHandler)) {
+                this.inputActionsHandler = fullHandler(1, WAITLIST_SIZE);
+            }
+        }
+
+        @Override
+        public long run() {
+            Random random = new Random(SEED);
+            DiscardingResponseSink responses = new DiscardingResponseSink();
+            for (int operation = 0; operation < WAITLIST_SIZE; operation++) {
+                this.inputActionsHandler.updatePriority(2 + random.nextInt(WAITLIST_SIZE), 1 + random.nextInt(MAX_PRIORITY), responses);
+            }
+            return responses.takeCount();
+        }
+    }
+
+    // Removes every user of a long waitlist, in random order.
+    private static class ExitWaitlist extends Benchmark {
+        private InputActionsHandler inputActionsHandler;
+        private int[] userIds;
+
+        ExitWaitlist() {
+            super("exitWaitlist", WAITLIST_SIZE);
+        }
+
+        @Override
+        public void setUp() {
+            this.inputActionsHandler = fullHandler(1, WAITLIST_SIZE);
+            this.userIds = StructureBenchmarks.shuffledKeys(new Random(SEED), WAITLIST_SIZE);
+        }
+
+        @Override
+        public long run() {
+            DiscardingResponseSink responses = new DiscardingResponseSink();
+            for (int userId : this.userIds) {
+                this.inputActionsHandler.exitWaitlist(userId + 1, responses);
+            }
+            return responses.takeCount();
+        }
+    }
+
+    // Releases the seats of every user of a full event and of its waitlist with a single command.
+    private static class ReleaseSeatsWide extends Benchmark {
+        private static final int RELEASED_WAITLIST_SIZE = WAITLIST_SIZE / 10;
+
+        private InputActionsHandler inputActionsHandler;
+
+        ReleaseSeatsWide() {
+            super("releaseSeatsWide", SEAT_COUNT + RELEASED_WAITLIST_SIZE);
+        }
+
+        @Override
+        public void setUp() {
+            this.inputActionsHandler = fullHandler(SEAT_COUNT, RELEASED_WAITLIST_SIZE);
+        }
+
+        @Override
+        public long run() {
+            DiscardingResponseSink responses = new DiscardingResponseSink();
+            this.inputActionsHandler.releaseSeats(1, SEAT_COUNT + RELEASED_WAITLIST_SIZE, responses);
+            return responses.takeCount();
+        }
+    }
+
+    // Prints the reservations of a full event of a million seats.
+    private static class PrintReservations extends Benchmark {
+        private InputActionsHandler inputActionsHandler;
+
+        PrintReservations() {
+            super("printReservations", SEAT_COUNT);
+        }
+
+        @Override
+        public void setUp() {
+            if (Objects.isNull(this.inputActionsHandler)) {
+                this.inputActionsHandler = fullHandler(SEAT_COUNT, 0);
+            }
+        }
+
+        @Override
+        public long run() {
+            DiscardingResponseSink responses = new DiscardingResponseSink();
+            this.inputActionsHandler.printReservations(responses);
+            return responses.takeCount();
+        }
+    }
+
+    // Processes a generated input file of mixed commands, from parsing it to writing the output file.
+    private static class ProcessFile extends Benchmark {
+        private static final int USER_ID_RANGE = 200_000;
+
+        private Path inputFilePath;
+
+        ProcessFile() {
+            super("processFile", FILE_COMMAND_COUNT);
+        }
+
+        @Override
+        public void setUp() throws IOException {
+            if (Objects.nonNull(this.inputFilePath)) {
+                return;
+            }
+            Logger.setLevel(LogLevel.WARN);
+            Path directoryPath = Files.createTempDirectory("gator-ticket-master-bench");
+            this.inputFilePath = directoryPath.resolve("input.txt");
+            directoryPath.toFile().deleteOnExit();
+            this.inputFilePath.toFile().deleteOnExit();
+            new File(directoryPath.toFile(), "input_output_file.txt").deleteOnExit();
+
+            Random random = new Random(SEED);
+            try (BufferedWriter writer = Files.newBufferedWriter(this.inputFilePath)) {
+                writer.write("Initialize(" + (USER_ID_RANGE / 2) + ")\n");
+                for (int command = 2; command < FILE_COMMAND_COUNT; command++) {
+                    int userId = 1 + random.nextInt(USER_ID_RANGE);
+                    int choice = random.nextInt(100);
+                    if (choice < 45) {
+                        writer.write("Reserve(" + userId + ", " + (1 + random.nextInt(MAX_PRIORITY)) + ")\n");
+                    } else if (choice < 75) {
+                        writer.write("Cancel(" + (1 + random.nextInt(USER_ID_RANGE / 2)) + ", " + userId + ")\n");
+                    } else if (choice < 85) {
+                        writer.write("UpdatePriority(" + userId + ", " + (1 + random.nextInt(MAX_PRIORITY)) + ")\n");
+                    } else if (choice < 92) {
+                        writer.write("ExitWaitlist(" + userId + ")\n");
+                    } else if (choice < 97) {
+                        writer.write("SeatStatus(" + (1 + random.nextInt(USER_ID_RANGE / 2)) + ")\n");
+                    } else {
+                        writer.write("Available()\n");
+                    }
+                }
+                writer.write("Quit()\n");
+            }
+        }
+
+        @Override
+        public long run() throws IOException {
+            // The processor reports completion on the console, which would otherwise be timed along with the file.
+            PrintStream console = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                new FileIOProcessor().processFile(this.inputFilePath.toString());
+            } finally {
+                System.setOut(console);
+            }
+            return Files.size(this.inputFilePath.resolveSibling("input_output_file.txt"));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks of the data structures behind the handler: the waitlist heap and the reservation trees.
+ */
+public class StructureBenchmarks {
+    private static final long SEED = 5536;
+    private static final int ENTRY_COUNT = 1_000_000;
+
+    /**
+     * @return the data structure benchmarks.
+     */
+    public static List<Benchmark> all() {
+        return Arrays.asList(new HeapInsertExtract(), new TreePutRemove("rbTreePutRemove", false),
+                new TreePutRemove("arrayRbTreePutRemove", true));
+    }
+
+    /**
+     * @param random source of the order
+     * @param count  number of keys
+     * @return the keys 1 to `count` in random order.
+     */
+    static int[] shuffledKeys(Random random, int count) {
+        int[] keys = new int[count];
+        for (int index = 0; index < count; index++) {
+            keys[index] = index + 1;
+        }
+        for (int index = count - 1; index > 0; index--) {
+            int swapIndex = random.nextInt(index + 1);
+            int key = keys[index];
+            keys[index] = keys[swapIndex];
+            keys[swapIndex] = key;
+        }
+        return keys;
+    }
+
+    // Fills the waitlist heap with users of random priorities and drains it in priority order.
+    private static class HeapInsertExtract extends Benchmark {
+        private User[] users;
+
+        HeapInsertExtract() {
+            super("heapInsertExtract", 2 * ENTRY_COUNT);
+        }
+
+        @Override
+        public void setUp() {
+            Random random = new Random(SEED);
+            this.users = new User[ENTRY_COUNT];
+            for (int index = 0; index < ENTRY_COUNT; index++) {
+                this.users[index] = new User(index + 1, random.nextInt(10), index);
+            }
+        }
+
+        @Override
+        public long run() {
+            BinaryMinHeap<User> heap = new BinaryMinHeap<>();
+            for (User user : this.users) {
+                heap.insert(user);
+            }
+            long checksum = 0;
+            while (!heap.isEmpty()) {
+                checksum = (checksum * 31) + heap.extractMin().getUserId();
+            }
+            return checksum;
+        }
+    }
+
+    // Puts random keys into a reservation tree and removes them in another random order.
+    private static class TreePutRemove extends Benchmark {
+        private final boolean arrayBacked;
+
+        private int[] insertedKeys;
+        private int[] removedKeys;
+
+        TreePutRemove(String name, boolean arrayBacked) {
+            super(name, 2 * ENTRY_COUNT);
+            this.arrayBacked = arrayBacked;
+        }
+
+        @Override
+        public void setUp() {
+            Random random = new Random(SEED);
+            this.insertedKeys = shuffledKeys(random, ENTRY_COUNT);
+            this.removedKeys = shuffledKeys(random, ENTRY_COUNT);
+        }
+
+        @Override
+        public long run() {
+            IntTreeMap tree = this.arrayBacked ? new ArrayRBTreeMap() : new RBTreeMap();
+            for (int key : this.insertedKeys) {
+                tree.put(key, key);
+            }
+            long checksum = 0;
+            for (int key : this.removedKeys) {
+                checksum += tree.removeKey(key, -1);
+            }
+            return checksum;
+        }
+    }
+}
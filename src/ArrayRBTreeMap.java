@@ -0,0 +1,590 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Red-Black tree stored as parallel primitive arrays (struct-of-arrays) instead of one {@link RBTreeNode} object per entry.
+ * A node is a slot index into the key, value, left, right, parent and color arrays; slot 0 is the black NIL sentinel.
+ * Slots of deleted nodes are chained into a free list through the left array and reused by later insertions.
+ * Each entry takes 21 bytes in total, with no object headers or boxed keys, and nodes stay close together in memory.
+ */
+public class ArrayRBTreeMap implements IntTreeMap {
+    private static final int NIL = 0;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final byte RED = 0;
+    private static final byte BLACK = 1;
+
+    private int[] keys;
+    private int[] values;
+    private int[] leftChildren;
+    private int[] rightChildren;
+    private int[] parents;
+    private byte[] colors;
+
+    private int rootNode;
+    private int freeListHead;
+    private int nextUnusedSlot;
+
+    private int size;
+
+    private long rotationCount;
+
+    public ArrayRBTreeMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity number of entries the arrays can hold before they grow.
+     */
+    public ArrayRBTreeMap(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1) + 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.leftChildren = new int[capacity];
+        this.rightChildren = new int[capacity];
+        this.parents = new int[capacity];
+        this.colors = new byte[capacity];
+        this.clear();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        assert Objects.nonNull(key) : "Key should not be null";
+
+        return this.containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return this.findNode(key) != NIL;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        assert Objects.nonNull(value) && value instanceof Integer : "Key should not be null";
+
+        int searchValue = (Integer) value;
+        for (int treeNode = this.firstNode(); treeNode != NIL; treeNode = this.successor(treeNode)) {
+            if (this.values[treeNode] == searchValue) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        assert Objects.nonNull(key) : "Key should not be null";
+
+        int treeNode = this.findNode((Integer) key);
+        return (treeNode == NIL) ? null : this.values[treeNode];
+    }
+
+    @Override
+    public int get(int key, int missing) {
+        int treeNode = this.findNode(key);
+        return (treeNode == NIL) ? missing : this.values[treeNode];
+    }
+
+    @Override
+    public Integer put(Integer key, Integer value) {
+        assert Objects.nonNull(key) : "Key should not be null";
+        assert Objects.nonNull(value) : "Value should not be null";
+
+        return this.put((int) key, (int) value);
+    }
+
+    @Override
+    public int put(int key, int value) {
+        this.insertKVPair(key, value, this.rootNode);
+        this.size++;
+        return value;
+    }
+
+    /**
+     * Inserts entries whose keys are in ascending order, searching for the place of each key from the previously inserted
+     * slot (a finger) rather than from the root. Keys past the largest key are appended straight below the last slot, and
+     * other keys usually land a few slots away from the finger, so the search is short instead of O(log n) from the root.
+     *
+     * @param keys   keys to insert, in ascending order
+     * @param values values to be associated with the keys
+     * @param count  number of entries to insert from the start of the arrays
+     */
+    @Override
+    public void putAscending(int[] keys, int[] values, int count) {
+        int lastNode = (this.rootNode == NIL) ? NIL : this.maximumNode(this.rootNode);
+        int fingerNode = NIL;
+        for (int index = 0; index < count; index++) {
+            int key = keys[index];
+            int startNode = this.rootNode;
+            boolean appendsLast = lastNode == NIL || this.keys[lastNode] <= key;
+            if (lastNode != NIL && appendsLast) {
+                startNode = lastNode;
+            } else if (fingerNode != NIL && this.keys[fingerNode] <= key) {
+                // Climb while the parent still precedes the key: the subtree reached then spans the key's place.
+                startNode = fingerNode;
+                while (this.parents[startNode] != NIL && this.keys[this.parents[startNode]] <= key) {
+                    startNode = this.parents[startNode];
+                }
+            }
+            fingerNode = this.insertKVPair(key, values[index], startNode);
+            if (appendsLast) {
+                lastNode = fingerNode;
+            }
+            this.size++;
+        }
+    }
+
+    @Override
+    public Integer remove(Object key) {
+        assert Objects.nonNull(key) : "Key should not be null";
+
+        int treeNode = this.findNode((Integer) key);
+        if (treeNode == NIL) {
+            return null;
+        }
+        this.size--;
+        return this.deleteKVPair(treeNode);
+    }
+
+    @Override
+    public int removeKey(int key, int missing) {
+        int treeNode = this.findNode(key);
+        if (treeNode == NIL) {
+            return missing;
+        }
+        this.size--;
+        return this.deleteKVPair(treeNode);
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Integer> map) {
+        map.forEach((key, value) -> {
+            if (Objects.nonNull(key) && Objects.nonNull(value)) this.put(key, value);
+        });
+    }
+
+    @Override
+    public void clear() {
+        this.rootNode = NIL;
+        this.freeListHead = NIL;
+        this.nextUnusedSlot = NIL + 1;
+        this.colors[NIL] = BLACK;
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        Set<Integer> keySet = new HashSet<>();
+        this.forEach((key, value) -> keySet.add(key));
+        return keySet;
+    }
+
+    @Override
+    public Collection<Integer> values() {
+        List<Integer> valuesList = new ArrayList<>();
+        this.forEach((key, value) -> valuesList.add(value));
+        return valuesList;
+    }
+
+    @Override
+    public Set<Entry<Integer, Integer>> entrySet() {
+        Set<Entry<Integer, Integer>> set = new HashSet<>();
+        this.forEach((key, value) -> set.add(Map.entry(key, value)));
+        return set;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super Integer> action) {
+        this.forEachEntry(action::accept);
+    }
+
+    @Override
+    public void forEachEntry(IntIntConsumer action) {
+        for (int treeNode = this.firstNode(); treeNode != NIL; treeNode = this.successor(treeNode)) {
+            action.accept(this.keys[treeNode], this.values[treeNode]);
+        }
+    }
+
+    @Override
+    public void forEachInRange(int fromKey, int toKey, IntIntConsumer action) {
+        int treeNode = this.ceilingNode(fromKey);
+        while (treeNode != NIL && this.keys[treeNode] <= toKey) {
+            action.accept(this.keys[treeNode], this.values[treeNode]);
+            treeNode = this.successor(treeNode);
+        }
+    }
+
+    @Override
+    public int removeRange(int fromKey, int toKey, IntIntConsumer removedAction) {
+        int[] rangeKeys = new int[INITIAL_CAPACITY];
+        int keyCount = 0;
+        for (int treeNode = this.ceilingNode(fromKey); treeNode != NIL && this.keys[treeNode] <= toKey; treeNode = this.successor(treeNode)) {
+            if (keyCount == rangeKeys.length) {
+                rangeKeys = Arrays.copyOf(rangeKeys, keyCount * 2);
+            }
+            rangeKeys[keyCount++] = this.keys[treeNode];
+        }
+
+        for (int index = 0; index < keyCount; index++) {
+            int treeNode = this.findNode(rangeKeys[index]);
+            this.size--;
+            removedAction.accept(rangeKeys[index], this.deleteKVPair(treeNode));
+        }
+        return keyCount;
+    }
+
+    @Override
+    public int height() {
+        return this.subtreeHeight(this.rootNode);
+    }
+
+    @Override
+    public long getRotationCount() {
+        return this.rotationCount;
+    }
+
+    // Searches for a key in the Red-Black tree and returns its slot if found, otherwise NIL. A key inserted several times
+    // is found at its first slot in key order, i.e. the earliest inserted one still present, as in RBTreeMap.
+    private int findNode(int key) {
+        int treeNode = this.ceilingNode(key);
+        return (treeNode != NIL && this.keys[treeNode] == key) ? treeNode : NIL;
+    }
+
+    // Returns the slot with the smallest key, or NIL if the tree is empty.
+    private int firstNode() {
+        return (this.rootNode == NIL) ? NIL : this.minimumNode(this.rootNode);
+    }
+
+    // Returns the slot with the smallest key in the subtree rooted at the given slot.
+    private int minimumNode(int treeNode) {
+        while (this.leftChildren[treeNode] != NIL) {
+            treeNode = this.leftChildren[treeNode];
+        }
+        return treeNode;
+    }
+
+    // Returns the number of slots on the longest path from the slot down to a leaf. The subtree is walked depth-first by
+    // following the parent links, like the other traversals, so it needs no stack.
+    private int subtreeHeight(int subtreeRoot) {
+        int height = 0;
+        int depth = 1;
+        int previousNode = (subtreeRoot == NIL) ? NIL : this.parents[subtreeRoot];
+        int treeNode = subtreeRoot;
+        while (treeNode != NIL) {
+            int nextNode;
+            if (previousNode == this.parents[treeNode]) {
+                // Arrived from above: descend into the first child, or go back up from a leaf.
+                height = Math.max(height, depth);
+                nextNode = (this.leftChildren[treeNode] != NIL) ? this.leftChildren[treeNode]
+                        : (this.rightChildren[treeNode] != NIL) ? this.rightChildren[treeNode] : this.parents[treeNode];
+            } else if (previousNode == this.leftChildren[treeNode] && this.rightChildren[treeNode] != NIL) {
+                nextNode = this.rightChildren[treeNode];
+            } else {
+                nextNode = this.parents[treeNode];
+            }
+            if (treeNode == subtreeRoot && nextNode == this.parents[treeNode]) {
+                break;
+            }
+            depth += (nextNode == this.parents[treeNode]) ? -1 : 1;
+            previousNode = treeNode;
+            treeNode = nextNode;
+        }
+        return height;
+    }
+
+    // Returns the slot with the largest key in the subtree of the given slot.
+    private int maximumNode(int treeNode) {
+        while (this.rightChildren[treeNode] != NIL) {
+            treeNode = this.rightChildren[treeNode];
+        }
+        return treeNode;
+    }
+
+    // Returns the slot with the smallest key greater than or equal to the given key, or NIL if there is none.
+    private int ceilingNode(int key) {
+        int treeNode = this.rootNode;
+        int ceilingNode = NIL;
+        while (treeNode != NIL) {
+            if (key <= this.keys[treeNode]) {
+                ceilingNode = treeNode;
+                treeNode = this.leftChildren[treeNode];
+            } else {
+                treeNode = this.rightChildren[treeNode];
+            }
+        }
+        return ceilingNode;
+    }
+
+    // Returns the in-order successor of the slot by following the parent links.
+    private int successor(int treeNode) {
+        if (this.rightChildren[treeNode] != NIL) {
+            return this.minimumNode(this.rightChildren[treeNode]);
+        }
+
+        int parentNode = this.parents[treeNode];
+        while (parentNode != NIL && treeNode == this.rightChildren[parentNode]) {
+            treeNode = parentNode;
+            parentNode = this.parents[parentNode];
+        }
+        return parentNode;
+    }
+
+    // Inserts a key-value pair as in a BST, searching for its place from the given slot, then restores the Red-Black
+    // properties through recoloring and rotations. Returns the slot holding the new pair.
+    private int insertKVPair(int key, int value, int startNode) {
+        int newNode = this.allocateNode(key, value);
+
+        int parentNode = NIL;
+        int treeNode = startNode;
+        while (treeNode != NIL) {
+            parentNode = treeNode;
+            treeNode = (key < this.keys[treeNode]) ? this.leftChildren[treeNode] : this.rightChildren[treeNode];
+        }
+
+        this.parents[newNode] = parentNode;
+        if (parentNode == NIL) {
+            this.rootNode = newNode;
+        } else if (key < this.keys[parentNode]) {
+            this.leftChildren[parentNode] = newNode;
+        } else {
+            this.rightChildren[parentNode] = newNode;
+        }
+
+        this.balanceRBTreePostInsert(newNode);
+        return newNode;
+    }
+
+    // Deletes the slot's key-value pair, restores the Red-Black properties and returns the slot to the free list.
+    private int deleteKVPair(int treeNode) {
+        int value = this.values[treeNode];
+
+        int replacedNode = treeNode;
+        byte replacedNodeColor = this.colors[replacedNode];
+        int childNode;
+        if (this.leftChildren[treeNode] == NIL) {
+            childNode = this.rightChildren[treeNode];
+            this.transplant(treeNode, childNode);
+        } else if (this.rightChildren[treeNode] == NIL) {
+            childNode = this.leftChildren[treeNode];
+            this.transplant(treeNode, childNode);
+        } else {
+            replacedNode = this.minimumNode(this.rightChildren[treeNode]);
+            replacedNodeColor = this.colors[replacedNode];
+            childNode = this.rightChildren[replacedNode];
+            if (this.parents[replacedNode] == treeNode) {
+                this.parents[childNode] = replacedNode;
+            } else {
+                this.transplant(replacedNode, childNode);
+                this.rightChildren[replacedNode] = this.rightChildren[treeNode];
+                this.parents[this.rightChildren[replacedNode]] = replacedNode;
+            }
+            this.transplant(treeNode, replacedNode);
+            this.leftChildren[replacedNode] = this.leftChildren[treeNode];
+            this.parents[this.leftChildren[replacedNode]] = replacedNode;
+            this.colors[replacedNode] = this.colors[treeNode];
+        }
+
+        if (replacedNodeColor == BLACK) {
+            this.balanceRBTreePostDelete(childNode);
+        }
+        this.freeNode(treeNode);
+
+        return value;
+    }
+
+    // Balances the Red-Black tree after an insertion by recoloring a red uncle or rotating around a black uncle.
+    private void balanceRBTreePostInsert(int treeNode) {
+        while (this.colors[this.parents[treeNode]] == RED) {
+            int parentNode = this.parents[treeNode];
+            int grandParentNode = this.parents[parentNode];
+            if (parentNode == this.leftChildren[grandParentNode]) {
+                int uncleNode = this.rightChildren[grandParentNode];
+                if (this.colors[uncleNode] == RED) {
+                    this.colors[parentNode] = BLACK;
+                    this.colors[uncleNode] = BLACK;
+                    this.colors[grandParentNode] = RED;
+                    treeNode = grandParentNode;
+                    continue;
+                }
+                if (treeNode == this.rightChildren[parentNode]) {
+                    treeNode = parentNode;
+                    this.rotateLeft(treeNode);
+                    parentNode = this.parents[treeNode];
+                }
+                this.colors[parentNode] = BLACK;
+                this.colors[grandParentNode] = RED;
+                this.rotateRight(grandParentNode);
+            } else {
+                int uncleNode = this.leftChildren[grandParentNode];
+                if (this.colors[uncleNode] == RED) {
+                    this.colors[parentNode] = BLACK;
+                    this.colors[uncleNode] = BLACK;
+                    this.colors[grandParentNode] = RED;
+                    treeNode = grandParentNode;
+                    continue;
+                }
+                if (treeNode == this.leftChildren[parentNode]) {
+                    treeNode = parentNode;
+                    this.rotateRight(treeNode);
+                    parentNode = this.parents[treeNode];
+                }
+                this.colors[parentNode] = BLACK;
+                this.colors[grandParentNode] = RED;
+                this.rotateLeft(grandParentNode);
+            }
+        }
+        this.colors[this.rootNode] = BLACK;
+    }
+
+    // Balances the Red-Black tree after a deletion, pushing the extra black up the tree or resolving it through rotations.
+    private void balanceRBTreePostDelete(int treeNode) {
+        while (treeNode != this.rootNode && this.colors[treeNode] == BLACK) {
+            int parentNode = this.parents[treeNode];
+            if (treeNode == this.leftChildren[parentNode]) {
+                int siblingNode = this.rightChildren[parentNode];
+                if (this.colors[siblingNode] == RED) {
+                    this.colors[siblingNode] = BLACK;
+                    this.colors[parentNode] = RED;
+                    this.rotateLeft(parentNode);
+                    siblingNode = this.rightChildren[parentNode];
+                }
+                if (this.colors[this.leftChildren[siblingNode]] == BLACK && this.colors[this.rightChildren[siblingNode]] == BLACK) {
+                    this.colors[siblingNode] = RED;
+                    treeNode = parentNode;
+                    continue;
+                }
+                if (this.colors[this.rightChildren[siblingNode]] == BLACK) {
+                    this.colors[this.leftChildren[siblingNode]] = BLACK;
+                    this.colors[siblingNode] = RED;
+                    this.rotateRight(siblingNode);
+                    siblingNode = this.rightChildren[parentNode];
+                }
+                this.colors[siblingNode] = this.colors[parentNode];
+                this.colors[parentNode] = BLACK;
+                this.colors[this.rightChildren[siblingNode]] = BLACK;
+                this.rotateLeft(parentNode);
+            } else {
+                int siblingNode = this.leftChildren[parentNode];
+                if (this.colors[siblingNode] == RED) {
+                    this.colors[siblingNode] = BLACK;
+                    this.colors[parentNode] = RED;
+                    this.rotateRight(parentNode);
+                    siblingNode = this.leftChildren[parentNode];
+                }
+                if (this.colors[this.leftChildren[siblingNode]] == BLACK && this.colors[this.rightChildren[siblingNode]] == BLACK) {
+                    this.colors[siblingNode] = RED;
+                    treeNode = parentNode;
+                    continue;
+                }
+                if (this.colors[this.leftChildren[siblingNode]] == BLACK) {
+                    this.colors[this.rightChildren[siblingNode]] = BLACK;
+                    this.colors[siblingNode] = RED;
+                    this.rotateLeft(siblingNode);
+                    siblingNode = this.leftChildren[parentNode];
+                }
+                this.colors[siblingNode] = this.colors[parentNode];
+                this.colors[parentNode] = BLACK;
+                this.colors[this.leftChildren[siblingNode]] = BLACK;
+                this.rotateRight(parentNode);
+            }
+            treeNode = this.rootNode;
+        }
+        this.colors[treeNode] = BLACK;
+    }
+
+    // Rotates the subtree rooted at the slot to the left, making its right child the new subtree root.
+    private void rotateLeft(int treeNode) {
+        int childNode = this.rightChildren[treeNode];
+        this.rightChildren[treeNode] = this.leftChildren[childNode];
+        if (this.leftChildren[childNode] != NIL) {
+            this.parents[this.leftChildren[childNode]] = treeNode;
+        }
+        this.transplant(treeNode, childNode);
+        this.leftChildren[childNode] = treeNode;
+        this.parents[treeNode] = childNode;
+        this.rotationCount++;
+    }
+
+    // Rotates the subtree rooted at the slot to the right, making its left child the new subtree root.
+    private void rotateRight(int treeNode) {
+        int childNode = this.leftChildren[treeNode];
+        this.leftChildren[treeNode] = this.rightChildren[childNode];
+        if (this.rightChildren[childNode] != NIL) {
+            this.parents[this.rightChildren[childNode]] = treeNode;
+        }
+        this.transplant(treeNode, childNode);
+        this.rightChildren[childNode] = treeNode;
+        this.parents[treeNode] = childNode;
+        this.rotationCount++;
+    }
+
+    // Replaces the subtree rooted at the slot with the subtree rooted at the new slot in the slot's parent.
+    private void transplant(int treeNode, int newNode) {
+        int parentNode = this.parents[treeNode];
+        if (parentNode == NIL) {
+            this.rootNode = newNode;
+        } else if (treeNode == this.leftChildren[parentNode]) {
+            this.leftChildren[parentNode] = newNode;
+        } else {
+            this.rightChildren[parentNode] = newNode;
+        }
+        this.parents[newNode] = parentNode;
+    }
+
+    // Takes a slot from the free list, or the next unused slot, growing the arrays if all slots are in use.
+    private int allocateNode(int key, int value) {
+        int treeNode;
+        if (this.freeListHead != NIL) {
+            treeNode = this.freeListHead;
+            this.freeListHead = this.leftChildren[treeNode];
+        } else {
+            if (this.nextUnusedSlot == this.keys.length) {
+                this.grow();
+            }
+            treeNode = this.nextUnusedSlot++;
+        }
+
+        this.keys[treeNode] = key;
+        this.values[treeNode] = value;
+        this.leftChildren[treeNode] = NIL;
+        this.rightChildren[treeNode] = NIL;
+        this.parents[treeNode] = NIL;
+        this.colors[treeNode] = RED;
+        return treeNode;
+    }
+
+    // Returns the slot to the free list, chaining it through the left array.
+    private void freeNode(int treeNode) {
+        this.leftChildren[treeNode] = this.freeListHead;
+        this.freeListHead = treeNode;
+    }
+
+    // Doubles all the arrays.
+    private void grow() {
+        int newCapacity = (int) Math.min((long) this.keys.length * 2, Integer.MAX_VALUE - 8);
+        this.keys = Arrays.copyOf(this.keys, newCapacity);
+        this.values = Arrays.copyOf(this.values, newCapacity);
+        this.leftChildren = Arrays.copyOf(this.leftChildren, newCapacity);
+        this.rightChildren = Arrays.copyOf(this.rightChildren, newCapacity);
+        this.parents = Arrays.copyOf(this.parents, newCapacity);
+        this.colors = Arrays.copyOf(this.colors, newCapacity);
+    }
+}
@@ -0,0 +1,211 @@
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log messages on a background thread, so logging threads never format timestamps, take locks or wait on the
+ * console. Messages are handed over through a bounded ring buffer of preallocated slots: a logging thread claims a
+ * slot with a compare-and-set on the claim sequence and publishes it with a volatile write, and the appender thread
+ * consumes the slots in sequence order. Once the ring has stayed empty for a few short parks, the appender thread parks
+ * until a logging thread publishes a message and unparks it, so an idle process does not keep waking it. When the
+ * ring is full the message is dropped and counted rather than blocking the caller. The appender formats the timestamp
+ * at most once per second and reuses it for the messages of that second. Messages still in the ring are written when
+ * the JVM shuts down.
+ */
+public class AsyncLogAppender {
+    private static final int CAPACITY = 8192;
+    private static final int INDEX_MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Short parks of the appender thread on an empty ring before it parks until a message is published.
+    private static final int IDLE_PARK_COUNT = 10;
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private static final AsyncLogAppender INSTANCE = new AsyncLogAppender();
+
+    private final LogLevel[] levels;
+    private final String[] messages;
+    private final long[] timestamps;
+    // Sequence last published in each slot, so the appender knows when the slot of its next sequence is ready.
+    private final AtomicLongArray publishedSequences;
+    private final AtomicLong claimSequence;
+    private final AtomicLong consumeSequence;
+    private final AtomicLong droppedCount;
+    private final StringBuilder line;
+    private final Thread thread;
+
+    private volatile boolean shuttingDown;
+    private volatile boolean parked;
+
+    // Second of the cached timestamp text, as milliseconds since the epoch divided by 1000.
+    private long cachedSecond;
+    private String cachedTimestamp;
+
+    private AsyncLogAppender() {
+        this.levels = new LogLevel[CAPACITY];
+        this.messages = new String[CAPACITY];
+        this.timestamps = new long[CAPACITY];
+        this.publishedSequences = new AtomicLongArray(CAPACITY);
+        for (int index = 0; index < CAPACITY; index++) {
+            this.publishedSequences.set(index, -1);
+        }
+        this.claimSequence = new AtomicLong();
+        this.consumeSequence = new AtomicLong();
+        this.droppedCount = new AtomicLong();
+        this.line = new StringBuilder();
+        this.cachedSecond = -1;
+
+        this.thread = new Thread(this::run, "log-appender");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutDown, "log-appender-shutdown"));
+    }
+
+    /**
+     * @return the appender shared by every {@link Logger}.
+     */
+    public static AsyncLogAppender getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues a message to be written by the appender thread, without blocking.
+     *
+     * @param level     level of the message
+     * @param message   text of the message
+     * @param timestamp time of the message, in milliseconds since the epoch
+     * @return `true` if the message was queued, `false` if the ring buffer was full and the message was dropped
+     */
+    public boolean append(LogLevel level, String message, long timestamp) {
+        long sequence;
+        do {
+            sequence = this.claimSequence.get();
+            if (sequence - this.consumeSequence.get() >= CAPACITY) {
+                this.droppedCount.incrementAndGet();
+                return false;
+            }
+        } while (!this.claimSequence.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & INDEX_MASK);
+        this.levels[index] = level;
+        this.messages[index] = message;
+        this.timestamps[index] = timestamp;
+        // A volatile write, so the publication is visible before the parked flag is read, as the appender reads them
+        // in reverse.
+        this.publishedSequences.set(index, sequence);
+        if (this.parked) {
+            LockSupport.unpark(this.thread);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until every message queued so far has been written.
+     */
+    public void flush() {
+        long lastSequence = this.claimSequence.get();
+        while (this.consumeSequence.get() < lastSequence && this.thread.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    // Writes the queued messages as they are published, until the JVM shuts down and the ring buffer is drained.
+    private void run() {
+        int idleParkCount = 0;
+        while (true) {
+            if (this.writeAvailable() > 0) {
+                idleParkCount = 0;
+                continue;
+            }
+            if (this.shuttingDown) {
+                return;
+            }
+            if (idleParkCount < IDLE_PARK_COUNT) {
+                idleParkCount++;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            // Announce the park before checking the ring again, so a logging thread either sees the flag or its message
+            // is seen here.
+            this.parked = true;
+            if (!this.isPublished(this.consumeSequence.get()) && !this.shuttingDown) {
+                LockSupport.park(this);
+            }
+            this.parked = false;
+        }
+    }
+
+    // Whether the message of the sequence has been published in its slot.
+    private boolean isPublished(long sequence) {
+        return this.publishedSequences.get((int) (sequence & INDEX_MASK)) == sequence;
+    }
+
+    // Writes the messages published so far and returns how many were written.
+    private int writeAvailable() {
+        int writtenCount = 0;
+        boolean wroteError = false;
+        long sequence = this.consumeSequence.get();
+        while (true) {
+            if (!this.isPublished(sequence)) {
+                break;
+            }
+            int index = (int) (sequence & INDEX_MASK);
+            LogLevel level = this.levels[index];
+            this.write(level, this.messages[index], this.timestamps[index]);
+            wroteError |= level == LogLevel.ERROR;
+            this.messages[index] = null;
+            this.consumeSequence.lazySet(++sequence);
+            writtenCount++;
+        }
+
+        long droppedMessages = this.droppedCount.getAndSet(0);
+        if (droppedMessages > 0) {
+            this.write(LogLevel.WARN, droppedMessages + " log messages were dropped as the log buffer was full.",
+                    System.currentTimeMillis());
+        }
+        if (writtenCount > 0 || droppedMessages > 0) {
+            System.out.flush();
+            if (wroteError) {
+                System.err.flush();
+            }
+        }
+        return writtenCount;
+    }
+
+    // Writes a message line, errors to the standard error and the other levels to the standard output.
+    private void write(LogLevel level, String message, long timestamp) {
+        this.line.setLength(0);
+        this.line.append(this.formatTimestamp(timestamp)).append(" [").append(level.name()).append("] ").append(message);
+        PrintStream stream = (level == LogLevel.ERROR) ? System.err : System.out;
+        stream.println(this.line);
+    }
+
+    // Formats the timestamp to the second, reusing the text of the previous message if logged in the same second.
+    private String formatTimestamp(long timestamp) {
+        long second = timestamp / MILLIS_PER_SECOND;
+        if (second != this.cachedSecond) {
+            this.cachedSecond = second;
+            this.cachedTimestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                    .format(TIMESTAMP_FORMATTER);
+        }
+        return this.cachedTimestamp;
+    }
+
+    // Lets the appender thread drain the ring buffer and waits for it before the JVM exits.
+    private void shutDown() {
+        this.shuttingDown = true;
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
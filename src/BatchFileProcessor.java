@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Processes many independent input files in parallel on a bounded pool of worker threads. Every file is processed as
+ * by {@link FileIOProcessor#processFile(String)} with its own processor and handler, inline on its worker thread, so
+ * the files share no state and each gets its own output file. Directories are expanded to the input files they
+ * contain, leaving out the files produced by previous runs. Once every file is processed, the number of files and
+ * commands processed, the wall time and the aggregate throughput are reported.
+ */
+public class BatchFileProcessor {
+    private final Logger logger;
+    private final int threadCount;
+
+    /**
+     * @param threadCount number of files processed at the same time, e.g. the number of available processors
+     */
+    public BatchFileProcessor(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threadCount);
+        }
+        this.logger = new Logger();
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Processes the input files, and the input files of the directories, in parallel and reports the aggregate
+     * throughput.
+     *
+     * @param inputPaths paths of input files or of directories of input files
+     */
+    public void processFiles(List<String> inputPaths) {
+        List<Path> inputFilePaths;
+        try {
+            inputFilePaths = this.listInputFiles(inputPaths);
+        } catch (IOException exception) {
+            logger.error("Error listing the input files: " + exception);
+            return;
+        }
+        logger.info("Started processing " + inputFilePaths.size() + " input files on " + this.threadCount + " threads.");
+
+        int failedFileCount = 0;
+        CommandMetrics metrics = new CommandMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(this.threadCount);
+        long startNanos = System.nanoTime();
+        try {
+            List<CompletableFuture<CommandMetrics>> fileMetrics = new ArrayList<>(inputFilePaths.size());
+            for (Path inputFilePath : inputFilePaths) {
+                fileMetrics.add(CompletableFuture.supplyAsync(() -> this.processFile(inputFilePath), executor));
+            }
+            for (CompletableFuture<CommandMetrics> futureMetrics : fileMetrics) {
+                CommandMetrics processedMetrics = futureMetrics.join();
+                if (Objects.isNull(processedMetrics)) {
+                    failedFileCount++;
+                } else {
+                    metrics.add(processedMetrics);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        this.reportThroughput(inputFilePaths.size() - failedFileCount, metrics.getCommandCount(), elapsedNanos);
+        if (failedFileCount > 0) {
+            logger.error(failedFileCount + " input files could not be processed.");
+        }
+    }
+
+    // Processes one input file with its own processor and returns its metrics, or null if it could not be processed.
+    private CommandMetrics processFile(Path inputFilePath) {
+        // The files already keep the threads busy, so each one is processed inline rather than pipelined.
+        FileIOProcessor fileIOProcessor = new FileIOProcessor(false);
+        try {
+            fileIOProcessor.processFile(inputFilePath.toString());
+        } catch (RuntimeException exception) {
+            logger.error(() -> "Error processing the file " + inputFilePath + ": " + exception);
+            return null;
+        }
+        return fileIOProcessor.getMetrics();
+    }
+
+    // Input files of the paths, in the order given and each directory's files sorted by name.
+    private List<Path> listInputFiles(List<String> inputPaths) throws IOException {
+        List<Path> inputFilePaths = new ArrayList<>();
+        for (String inputPath : inputPaths) {
+            Path path = Paths.get(inputPath);
+            if (!Files.isDirectory(path)) {
+                inputFilePaths.add(path);
+                continue;
+            }
+            try (Stream<Path> directoryPaths = Files.list(path)) {
+                inputFilePaths.addAll(directoryPaths
+                        .filter(Files::isRegularFile)
+                        .filter(filePath -> !FileIOProcessor.isProducedFile(filePath))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            }
+        }
+        return inputFilePaths;
+    }
+
+    // Logs the files and commands processed, the wall time and the commands processed per second.
+    private void reportThroughput(int fileCount, long commandCount, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        long commandsPerSecond = (elapsedNanos == 0) ? 0 : Math.round(commandCount / elapsedSeconds);
+        logger.info("Processed " + fileCount + " files and " + commandCount + " commands in "
+                + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms: " + commandsPerSecond + " commands per second.");
+    }
+}
@@ -0,0 +1,33 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Layout of the binary command log: a header made of the magic bytes {@code GTMB} and a version byte, followed by one
+ * record per command. A record is the opcode byte of the command ({@link CommandType#getOpcode()}) followed by each of
+ * its arguments as an unsigned LEB128 varint, so small user and seat numbers take a single byte.
+ */
+public final class BinaryCommandFormat {
+    static final byte[] MAGIC = {'G', 'T', 'M', 'B'};
+    static final byte VERSION = 1;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+    // An unsigned 32-bit value takes at most five 7-bit groups.
+    static final int MAX_VARINT_LENGTH = 5;
+
+    private BinaryCommandFormat() {
+    }
+
+    /**
+     * @param filePath path of the file to check.
+     * @return `true` if the file starts with the binary command log magic bytes, `false` otherwise.
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinaryCommandLog(Path filePath) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(filePath)) {
+            byte[] magic = inputStream.readNBytes(MAGIC.length);
+            return Arrays.equals(magic, MAGIC);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads commands from a binary command log (see {@link BinaryCommandFormat}), decoding the opcode and varint arguments
+ * of each record straight from a reusable byte buffer. Unlike the text readers, a malformed record is reported as an
+ * {@link IOException}, since the records after it cannot be located.
+ */
+public class BinaryCommandReader implements CommandReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ARGUMENTS = 3;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final int[] arguments;
+
+    private CommandType commandType;
+
+    public BinaryCommandReader(Path filePath) throws IOException {
+        this(FileChannel.open(filePath, StandardOpenOption.READ));
+    }
+
+    /**
+     * @param channel channel positioned at the start of the binary command log header
+     * @throws IOException if the header cannot be read or is not a supported binary command log header
+     */
+    public BinaryCommandReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip();
+        this.arguments = new int[MAX_ARGUMENTS];
+        this.readHeader();
+    }
+
+    @Override
+    public boolean nextCommand() throws IOException {
+        if (!this.ensureAvailable(1)) {
+            return false;
+        }
+        int opcode = this.buffer.get() & 0xFF;
+        CommandType nextCommandType = CommandType.fromOpcode(opcode);
+        if (Objects.isNull(nextCommandType)) {
+            throw new IOException("Unknown opcode in binary command log: " + opcode);
+        }
+        for (int argumentIndex = 0; argumentIndex < nextCommandType.getArgumentCount(); argumentIndex++) {
+            this.arguments[argumentIndex] = this.readVarint();
+        }
+        this.commandType = nextCommandType;
+        return true;
+    }
+
+    @Override
+    public CommandType getCommandType() {
+        return this.commandType;
+    }
+
+    @Override
+    public int getArgument(int argumentIndex) {
+        return this.arguments[argumentIndex];
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    // Reads and validates the magic bytes and the version of the log.
+    private void readHeader() throws IOException {
+        if (!this.ensureAvailable(BinaryCommandFormat.HEADER_LENGTH)) {
+            throw new IOException("Not a binary command log: header is missing");
+        }
+        for (byte magicByte : BinaryCommandFormat.MAGIC) {
+            if (this.buffer.get() != magicByte) {
+                throw new IOException("Not a binary command log: magic bytes do not match");
+            }
+        }
+        byte version = this.buffer.get();
+        if (version != BinaryCommandFormat.VERSION) {
+            throw new IOException("Unsupported binary command log version: " + version);
+        }
+    }
+
+    // Decodes an unsigned LEB128 varint of at most 32 bits.
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0, length = 0; length < BinaryCommandFormat.MAX_VARINT_LENGTH; shift += 7, length++) {
+            if (!this.ensureAvailable(1)) {
+                throw new EOFException("Binary command log ends in the middle of a command");
+            }
+            int varintByte = this.buffer.get() & 0xFF;
+            value |= (varintByte & 0x7F) << shift;
+            if ((varintByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary command log");
+    }
+
+    // Refills the buffer until it holds at least the given number of bytes; returns `false` if the input ends first.
+    private boolean ensureAvailable(int byteCount) throws IOException {
+        if (this.buffer.remaining() >= byteCount) {
+            return true;
+        }
+        this.buffer.compact();
+        try {
+            while (this.buffer.position() < byteCount) {
+                if (this.channel.read(this.buffer) < 0) {
+                    return false;
+                }
+            }
+        } finally {
+            this.buffer.flip();
+        }
+        return true;
+    }
+}
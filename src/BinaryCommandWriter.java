@@ -0,0 +1,69 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes commands in the binary command log format (see {@link BinaryCommandFormat}). The header is written on creation.
+ */
+public class BinaryCommandWriter implements Closeable {
+    private final OutputStream outputStream;
+
+    /**
+     * @param outputStream stream the log is written to; it should be buffered as records are written a byte at a time
+     * @throws IOException if the header cannot be written
+     */
+    public BinaryCommandWriter(OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        this.outputStream.write(BinaryCommandFormat.MAGIC);
+        this.outputStream.write(BinaryCommandFormat.VERSION);
+    }
+
+    /**
+     * Writes the current command of the reader as a record.
+     *
+     * @param command reader positioned at the command to write
+     * @throws IOException if the record cannot be written
+     */
+    public void writeCommand(CommandReader command) throws IOException {
+        CommandType commandType = command.getCommandType();
+        this.outputStream.write(commandType.getOpcode());
+        for (int argumentIndex = 0; argumentIndex < commandType.getArgumentCount(); argumentIndex++) {
+            this.writeVarint(command.getArgument(argumentIndex));
+        }
+    }
+
+    /**
+     * Converts every valid command of the reader into a record. Lines that are not valid commands produce no output, so
+     * they are dropped, as are commands addressed to events other than the default one, which the format cannot address.
+     *
+     * @param reader commands to convert
+     * @return number of commands written
+     * @throws IOException if the commands cannot be read or written
+     */
+    public long writeAll(CommandReader reader) throws IOException {
+        long commandCount = 0;
+        while (reader.nextCommand()) {
+            if (reader.getEventId() != CommandReader.DEFAULT_EVENT_ID) {
+                continue;
+            }
+            this.writeCommand(reader);
+            commandCount++;
+        }
+        return commandCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.outputStream.close();
+    }
+
+    // Encodes the value as an unsigned LEB128 varint.
+    private void writeVarint(int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            this.outputStream.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        this.outputStream.write(remaining);
+    }
+}
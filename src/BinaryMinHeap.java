@@ -1,15 +1,34 @@
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class BinaryMinHeap<K extends Comparable<K>> {
-    private final K[] heapArray;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int maxSize;
+
+    private K[] heapArray;
 
     private int currentSize;
 
+    public BinaryMinHeap() {
+        this(MAX_ARRAY_SIZE);
+    }
+
+    /**
+     * Creates a heap that starts small and doubles its array as elements are inserted, up to the given bound.
+     *
+     * @param maxSize maximum number of elements the heap can hold.
+     */
     @SuppressWarnings("unchecked")
-    public BinaryMinHeap(int size) {
-        this.heapArray = (K[]) new Comparable[size];
+    public BinaryMinHeap(int maxSize) {
+        this.maxSize = Math.min(Math.max(maxSize, 0), MAX_ARRAY_SIZE);
+        this.heapArray = (K[]) new Comparable[Math.min(INITIAL_CAPACITY, this.maxSize)];
         this.currentSize = 0;
     }
 
@@ -18,20 +37,53 @@ public class BinaryMinHeap<K extends Comparable<K>> {
      *
      * @param value The integer value to be inserted into the heap.
      * @return {@code true} if the value was successfully inserted into the heap,
-     * {@code false} if the insertion failed (e.g., due to insufficient space or invalid input).
+     * {@code false} if the insertion failed (e.g., the heap already holds its maximum number of elements).
      */
     public boolean insert(K value) {
-        if (this.currentSize >= this.heapArray.length) {
+        if (this.currentSize >= this.heapArray.length && !this.grow()) {
             return false;
         }
 
-        this.heapArray[this.currentSize] = value;
-        this.heapifyUp(this.currentSize);
+        this.setElement(this.currentSize, value);
         this.currentSize++;
+        this.heapifyUp(this.currentSize - 1);
 
         return true;
     }
 
+    /**
+     * Inserts all the values into the Binary Min Heap in one bulk operation. When the values outnumber the elements already
+     * in the heap, the heap is rebuilt bottom-up in O(n) instead of sifting up every value in O(n log n).
+     *
+     * @param values to be inserted into the heap.
+     * @return number of values inserted, which is less than the number of values if the heap reached its maximum size.
+     */
+    public int insertAll(Collection<? extends K> values) {
+        int previousSize = this.currentSize;
+        int requiredSize = (int) Math.min((long) this.currentSize + values.size(), this.maxSize);
+        if (requiredSize > this.heapArray.length) {
+            this.heapArray = Arrays.copyOf(this.heapArray, requiredSize);
+        }
+
+        for (K value : values) {
+            if (this.currentSize >= requiredSize) {
+                break;
+            }
+            this.setElement(this.currentSize, value);
+            this.currentSize++;
+        }
+
+        int insertedCount = this.currentSize - previousSize;
+        if (insertedCount > previousSize) {
+            this.buildHeap();
+        } else {
+            for (int index = previousSize; index < this.currentSize; index++) {
+                this.heapifyUp(index);
+            }
+        }
+        return insertedCount;
+    }
+
     /**
      * Removes and returns the minimum value (root) from the Binary Min Heap.
      *
@@ -42,14 +94,7 @@ public class BinaryMinHeap<K extends Comparable<K>> {
         if (this.currentSize <= 0) {
             throw new NoSuchElementException("Cannot extract minimum: Queue is empty.");
         }
-        K minValue = this.heapArray[0];
-
-        this.currentSize--;
-        this.heapArray[0] = this.heapArray[this.currentSize];
-        heapifyDown(0);
-        this.heapArray[currentSize] = null;
-
-        return minValue;
+        return this.removeAt(0);
     }
 
     /**
@@ -65,36 +110,40 @@ public class BinaryMinHeap<K extends Comparable<K>> {
             return null;
         }
 
-        K removedElement;
-        if (element.equals(this.heapArray[0])) {
-            return this.extractMin();
-        }
-        if (element.equals(this.heapArray[this.currentSize - 1])) {
-            removedElement = this.heapArray[this.currentSize - 1];
-            this.heapArray[this.currentSize - 1] = null;
-            this.currentSize--;
-            return removedElement;
-        }
-
-        for (int index = 1; index < this.currentSize - 1; index++) {
+        for (int index = 0; index < this.currentSize; index++) {
             if (element.equals(this.heapArray[index])) {
-                removedElement = this.heapArray[index];
-
-                this.heapArray[index] = this.heapArray[this.currentSize - 1];
-                this.currentSize--;
+                return this.removeAt(index);
+            }
+        }
+        return null;
+    }
 
-                int parentIndex = (index - 1) / 2;
-                if (this.heapArray[index].compareTo(this.heapArray[parentIndex]) > 0) {
-                    this.heapifyDown(index);
-                } else {
-                    this.heapifyUp(index);
+    /**
+     * Removes all the elements matching the filter in a single pass over the heap array, then rebuilds the heap bottom-up.
+     * The cost is O(n) regardless of how many elements are removed.
+     *
+     * @param filter which returns {@code true} for the elements to be removed.
+     * @return number of elements removed.
+     */
+    public int removeIf(Predicate<? super K> filter) {
+        int retainedSize = 0;
+        for (int index = 0; index < this.currentSize; index++) {
+            K element = this.heapArray[index];
+            if (!filter.test(element)) {
+                if (retainedSize != index) {
+                    this.setElement(retainedSize, element);
                 }
-
-                this.heapArray[this.currentSize] = null;
-                return removedElement;
+                retainedSize++;
             }
         }
-        return null;
+
+        int removedCount = this.currentSize - retainedSize;
+        Arrays.fill(this.heapArray, retainedSize, this.currentSize, null);
+        this.currentSize = retainedSize;
+        if (removedCount > 0) {
+            this.buildHeap();
+        }
+        return removedCount;
     }
 
     /**
@@ -120,13 +169,8 @@ public class BinaryMinHeap<K extends Comparable<K>> {
      */
     public void updateElement(Integer index, K element) {
         if (index >= 0 && index < this.currentSize) {
-            this.heapArray[index] = element;
-            int parentIndex = (index - 1) / 2;
-            if (this.heapArray[index].compareTo(this.heapArray[parentIndex]) > 0) {
-                this.heapifyDown(index);
-            } else {
-                this.heapifyUp(index);
-            }
+            this.setElement(index, element);
+            this.restoreHeap(index);
         }
     }
 
@@ -142,6 +186,17 @@ public class BinaryMinHeap<K extends Comparable<K>> {
         return this.heapArray[0];
     }
 
+    /**
+     * Performs the action for each element of the heap, in heap array order rather than sorted order.
+     *
+     * @param action to be performed for each element.
+     */
+    public void forEach(Consumer<? super K> action) {
+        for (int index = 0; index < this.currentSize; index++) {
+            action.accept(this.heapArray[index]);
+        }
+    }
+
     /**
      * @return current size of the heap i.e. number of elements.
      */
@@ -156,6 +211,71 @@ public class BinaryMinHeap<K extends Comparable<K>> {
         return this.currentSize == 0;
     }
 
+    /**
+     * Removes the element at the specified index, moving the last element into its slot and restoring the Min-Heap property.
+     *
+     * @param index of the element to remove.
+     * @return the removed element
+     */
+    protected K removeAt(int index) {
+        K removedElement = this.heapArray[index];
+
+        this.currentSize--;
+        if (index != this.currentSize) {
+            this.setElement(index, this.heapArray[this.currentSize]);
+        }
+        this.heapArray[this.currentSize] = null;
+        if (index < this.currentSize) {
+            this.restoreHeap(index);
+        }
+
+        return removedElement;
+    }
+
+    /**
+     * Places the element at the specified index. Subclasses override this to track the position of every element.
+     *
+     * @param index   of the slot in the heap array.
+     * @param element to place in the slot.
+     */
+    protected void setElement(int index, K element) {
+        this.heapArray[index] = element;
+    }
+
+    /**
+     * @param index of the slot in the heap array.
+     * @return the element at the specified index.
+     */
+    protected K elementAt(int index) {
+        return this.heapArray[index];
+    }
+
+    // Doubles the heap array, bounded by the maximum size. Returns false if the heap cannot grow any further.
+    private boolean grow() {
+        if (this.heapArray.length >= this.maxSize) {
+            return false;
+        }
+        int newCapacity = (int) Math.min((long) Math.max(this.heapArray.length, 1) * 2, this.maxSize);
+        this.heapArray = Arrays.copyOf(this.heapArray, newCapacity);
+        return true;
+    }
+
+    // Restores the Min-Heap property over the whole heap array bottom-up in O(n).
+    private void buildHeap() {
+        for (int index = (this.currentSize / 2) - 1; index >= 0; index--) {
+            this.heapifyDown(index);
+        }
+    }
+
+    // Moves the element at the specified index up or down, whichever restores the Min-Heap property.
+    private void restoreHeap(int index) {
+        if (index > 0 && this.heapArray[index].compareTo(this.heapArray[(index - 1) / 2]) < 0) {
+            this.heapifyUp(index);
+        } else {
+            this.heapifyDown(index);
+        }
+    }
+
     // Moves the element at the specified index up to its correct position in the heap
     private void heapifyUp(int index) {
         int heapifyIndex = index;
@@ -196,7 +316,7 @@ public class BinaryMinHeap<K extends Comparable<K>> {
     // Swaps the elements at the specified indices within the heap array.
     private void swapElements(int index1, int index2) {
         K temp = this.heapArray[index1];
-        this.heapArray[index1] = this.heapArray[index2];
-        this.heapArray[index2] = temp;
+        this.setElement(index1, this.heapArray[index2]);
+        this.setElement(index2, temp);
     }
 }
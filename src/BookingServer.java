@@ -0,0 +1,392 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Long-running server accepting commands over TCP in the syntax of the input files, one command per line, e.g.
+ * {@code Reserve(12, 3)} or {@code Event(7) Reserve(12, 3)}, and answering with the same responses, one per line.
+ * A single selector thread accepts the connections, reads and tokenizes their lines and submits the commands to a
+ * {@link ShardedBookingEngine}, so any number of clients feed the events' handlers concurrently while the commands of
+ * an event still run one at a time. Clients may pipeline commands without waiting for responses: the responses of a
+ * connection are returned in the order of its commands, and all the responses ready for a connection are written
+ * with a single socket write. A connection with too many commands awaiting responses, or with too many response bytes
+ * the client has not read yet, is not read from until they complete or drain. `Quit()` answers as usual and closes the
+ * connection, while the server keeps running.
+ */
+public class BookingServer implements Closeable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_OUTPUT_BUFFER_SIZE = 4 * 1024;
+    // Lines longer than this cannot be valid commands and are discarded without being buffered.
+    private static final int MAX_LINE_LENGTH = 256;
+    // Commands of a connection awaiting their responses, beyond which the connection is not read from.
+    private static final int MAX_PENDING_COMMANDS = 16 * 1024;
+    // Response bytes of a connection not yet written to its socket, beyond which no more responses are buffered and the
+    // connection is not read from, so a client that never reads cannot grow the server's memory.
+    private static final int MAX_PENDING_OUTPUT_BYTES = 4 * 1024 * 1024;
+    private static final List<String> QUIT_RESPONSES = Collections.singletonList("Program Terminated!!");
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ShardedBookingEngine bookingEngine;
+    private final ByteBuffer readBuffer;
+    private final CommandTokenizer commandTokenizer;
+    // Connections with responses completed since the selector thread last wrote them out.
+    private final Queue<Connection> readyConnections;
+    private final AtomicBoolean wakeupPending;
+    private final AtomicBoolean serving;
+    private final CountDownLatch stopped;
+    private final Logger logger;
+
+    private volatile boolean running;
+
+    /**
+     * Binds the server to the address. Commands are only accepted once {@link #serve()} runs.
+     *
+     * @param address    address to listen on, e.g. a port on the loopback interface
+     * @param shardCount number of worker threads the events are sharded across
+     * @throws IOException if the address cannot be bound
+     */
+    public BookingServer(InetSocketAddress address, int shardCount) throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(address);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.bookingEngine = new ShardedBookingEngine(shardCount);
+        this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        this.commandTokenizer = new CommandTokenizer();
+        this.readyConnections = new ConcurrentLinkedQueue<>();
+        this.wakeupPending = new AtomicBoolean();
+        this.serving = new AtomicBoolean();
+        this.stopped = new CountDownLatch(1);
+        this.logger = new Logger();
+        this.running = true;
+    }
+
+    /**
+     * @return port the server listens on, useful when it was bound to port 0.
+     * @throws IOException if the port cannot be read
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) this.serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Accepts connections and serves their commands on the calling thread until the server is closed, then closes the
+     * connections and waits for the commands already submitted to be executed.
+     *
+     * @throws IOException           if the server socket fails
+     * @throws IllegalStateException if the server is already serving or has been closed
+     */
+    public void serve() throws IOException {
+        if (!this.serving.compareAndSet(false, true)) {
+            throw new IllegalStateException("The server is already serving or has been closed.");
+        }
+        logger.info("Serving commands on port " + this.getPort() + " with " + this.bookingEngine.getShardCount() + " event shards.");
+        try {
+            while (this.running) {
+                this.selector.select();
+                this.wakeupPending.set(false);
+
+                Iterator<SelectionKey> selectedKeys = this.selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        this.accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        this.read(connection);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        this.write(connection);
+                    }
+                }
+
+                Connection connection;
+                while (Objects.nonNull(connection = this.readyConnections.poll())) {
+                    connection.queued.set(false);
+                    this.write(connection);
+                }
+            }
+        } finally {
+            this.shutDown();
+            this.stopped.countDown();
+        }
+    }
+
+    /**
+     * Stops serving and waits until the connections are closed and the commands already submitted have been executed.
+     *
+     * @throws IOException if interrupted while waiting for the server to stop
+     */
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        if (this.serving.compareAndSet(false, true)) {
+            // Never served, so there is no selector thread to stop.
+            this.shutDown();
+            return;
+        }
+        this.selector.wakeup();
+        try {
+            this.stopped.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the server to stop.", exception);
+        }
+    }
+
+    // Closes the sockets and the booking engine, once the selector thread no longer submits commands.
+    private void shutDown() throws IOException {
+        try {
+            for (SelectionKey key : this.selector.keys()) {
+                key.channel().close();
+            }
+            this.selector.close();
+            this.serverChannel.close();
+        } finally {
+            this.bookingEngine.close();
+        }
+    }
+
+    // Accepts a pending connection and registers it for reading; a connection that fails to be set up is dropped.
+    private void accept() {
+        SocketChannel channel = null;
+        try {
+            channel = this.serverChannel.accept();
+            if (Objects.isNull(channel)) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+        } catch (IOException exception) {
+            logger.warn(() -> "Error accepting a connection: " + exception);
+            if (Objects.nonNull(channel)) {
+                try {
+                    channel.close();
+                } catch (IOException closeException) {
+                    // The connection is dropped either way.
+                }
+            }
+        }
+    }
+
+    // Reads what the client sent and submits every complete line, then writes out the responses already available.
+    private void read(Connection connection) {
+        int bytesRead;
+        try {
+            this.readBuffer.clear();
+            bytesRead = connection.channel.read(this.readBuffer);
+        } catch (IOException exception) {
+            this.closeConnection(connection);
+            return;
+        }
+        if (bytesRead < 0) {
+            // The client will send no more commands; close once the pending responses are written.
+            connection.inputEnded = true;
+            this.write(connection);
+            return;
+        }
+
+        this.readBuffer.flip();
+        while (this.readBuffer.hasRemaining() && !connection.inputEnded) {
+            byte character = this.readBuffer.get();
+            if (character == '\n') {
+                this.submitLine(connection);
+            } else if (connection.lineLength < MAX_LINE_LENGTH) {
+                connection.line[connection.lineLength++] = character;
+            } else {
+                connection.lineLength = MAX_LINE_LENGTH + 1;
+            }
+        }
+        this.write(connection);
+    }
+
+    // Tokenizes the buffered line of the connection and submits it, queuing the future of its responses in order.
+    private void submitLine(Connection connection) {
+        int lineLength = connection.lineLength;
+        connection.lineLength = 0;
+        if (lineLength > MAX_LINE_LENGTH) {
+            return;
+        }
+        if (lineLength > 0 && connection.line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        connection.lineView.reset(connection.line, lineLength);
+        if (!this.commandTokenizer.tokenize(connection.lineView)) {
+            return;
+        }
+
+        CommandType commandType = this.commandTokenizer.getCommandType();
+        if (commandType == CommandType.QUIT) {
+            connection.pendingResponses.add(CompletableFuture.completedFuture(QUIT_RESPONSES));
+            connection.inputEnded = true;
+            return;
+        }
+        CompletableFuture<List<String>> responses = this.bookingEngine.submit(this.commandTokenizer.getEventId(), commandType,
+                this.commandTokenizer.getArgument(0), this.commandTokenizer.getArgument(1), this.commandTokenizer.getArgument(2));
+        connection.pendingResponses.add(responses);
+    }
+
+    // Called on any thread when the oldest pending command of the connection completes: queues the connection for the
+    // selector thread and wakes it, once for all the connections queued before it runs.
+    private void responsesReady(Connection connection) {
+        if (connection.queued.compareAndSet(false, true)) {
+            this.readyConnections.add(connection);
+        }
+        if (this.wakeupPending.compareAndSet(false, true)) {
+            this.selector.wakeup();
+        }
+    }
+
+    // Writes the responses completed so far in command order, pausing reads while too many commands or response bytes
+    // are pending and closing the connection once its input has ended and every response has been written.
+    private void write(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        while (!connection.pendingResponses.isEmpty() && connection.pendingResponses.peek().isDone()
+                && connection.output.position() < MAX_PENDING_OUTPUT_BYTES) {
+            try {
+                connection.appendResponses(connection.pendingResponses.poll().join());
+            } catch (CompletionException exception) {
+                logger.error(() -> "Exception when executing a command: " + exception.getCause());
+            }
+        }
+
+        try {
+            connection.output.flip();
+            connection.channel.write(connection.output);
+            connection.output.compact();
+        } catch (IOException exception) {
+            this.closeConnection(connection);
+            return;
+        }
+
+        // Only the oldest pending command is watched, as the responses after it cannot be written before its own.
+        CompletableFuture<List<String>> oldestResponses = connection.pendingResponses.peek();
+        if (Objects.nonNull(oldestResponses) && oldestResponses != connection.watchedResponses) {
+            connection.watchedResponses = oldestResponses;
+            oldestResponses.whenComplete((completedResponses, exception) -> this.responsesReady(connection));
+        }
+
+        // Completed responses left out of a full output buffer are written once the socket takes more bytes.
+        boolean outputPending = connection.output.position() > 0
+                || (!connection.pendingResponses.isEmpty() && connection.pendingResponses.peek().isDone());
+        if (connection.inputEnded && !outputPending && connection.pendingResponses.isEmpty()) {
+            this.closeConnection(connection);
+            return;
+        }
+        boolean reading = !connection.inputEnded && connection.pendingResponses.size() < MAX_PENDING_COMMANDS
+                && connection.output.position() < MAX_PENDING_OUTPUT_BYTES;
+        connection.key.interestOps((reading ? SelectionKey.OP_READ : 0) | (outputPending ? SelectionKey.OP_WRITE : 0));
+    }
+
+    // Closes the connection, discarding the responses it has not received.
+    private void closeConnection(Connection connection) {
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException exception) {
+            logger.warn(() -> "Error closing a connection: " + exception);
+        }
+    }
+
+    // State of a client connection; only touched by the selector thread, except for the `queued` flag.
+    private static class Connection {
+        private final SocketChannel channel;
+        private final byte[] line;
+        private final LineView lineView;
+        private final Deque<CompletableFuture<List<String>>> pendingResponses;
+        private final AtomicBoolean queued;
+
+        private SelectionKey key;
+        private CompletableFuture<List<String>> watchedResponses;
+        private ByteBuffer output;
+        private int lineLength;
+        private boolean inputEnded;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.line = new byte[MAX_LINE_LENGTH];
+            this.lineView = new LineView();
+            this.pendingResponses = new ArrayDeque<>();
+            this.queued = new AtomicBoolean();
+            this.output = ByteBuffer.allocate(INITIAL_OUTPUT_BUFFER_SIZE);
+        }
+
+        // Appends the responses of a command to the output buffer, one per line, growing the buffer if needed.
+        void appendResponses(List<String> responses) {
+            for (String response : responses) {
+                if (this.output.remaining() < response.length() + 1) {
+                    ByteBuffer grownOutput = ByteBuffer.allocate(Math.max(this.output.capacity() * 2,
+                            this.output.position() + response.length() + 1));
+                    this.output.flip();
+                    grownOutput.put(this.output);
+                    this.output = grownOutput;
+                }
+                for (int index = 0; index < response.length(); index++) {
+                    this.output.put((byte) response.charAt(index));
+                }
+                this.output.put((byte) '\n');
+            }
+        }
+    }
+
+    // Reusable character view over the bytes of a line, so tokenizing a line allocates nothing.
+    private static class LineView implements CharSequence {
+        private byte[] bytes;
+        private int length;
+
+        void reset(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (this.bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return this.toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(this.bytes, 0, this.length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
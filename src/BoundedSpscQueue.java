@@ -0,0 +1,100 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread, backed by a ring buffer. Each side
+ * only writes its own index, publishing it with an ordered write, and keeps a cached copy of the other side's index,
+ * so offering to a queue that is not full and polling a queue that is not empty touch no shared state beyond the slot.
+ * Neither operation waits: {@link #offer(Object)} fails when the queue is full and {@link #poll()} returns null when
+ * it is empty, leaving the waiting to the caller, e.g. with {@link #backOff(int)}.
+ *
+ * @param <E> type of the queued elements
+ */
+public class BoundedSpscQueue<E> {
+    private static final int SPIN_LIMIT = 64;
+    private static final int YIELD_LIMIT = 128;
+    private static final long PARK_NANOS = 20_000;
+
+    private final Object[] elements;
+    private final int indexMask;
+    // Index of the next element to poll, only written by the consumer.
+    private final AtomicLong head;
+    // Index of the next element to offer, only written by the producer.
+    private final AtomicLong tail;
+
+    // Head last read by the producer, behind or equal to the actual head.
+    private long cachedHead;
+    // Tail last read by the consumer, behind or equal to the actual tail.
+    private long cachedTail;
+
+    /**
+     * @param capacity least number of elements the queue holds, rounded up to a power of two
+     */
+    public BoundedSpscQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid queue capacity: " + capacity);
+        }
+        int ringSize = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[ringSize];
+        this.indexMask = ringSize - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Adds the element at the tail of the queue. Only called by the producer thread.
+     *
+     * @param element element to add
+     * @return `true` if the element was added, `false` if the queue was full
+     */
+    public boolean offer(E element) {
+        long currentTail = this.tail.get();
+        if (currentTail - this.cachedHead >= this.elements.length) {
+            this.cachedHead = this.head.get();
+            if (currentTail - this.cachedHead >= this.elements.length) {
+                return false;
+            }
+        }
+        this.elements[(int) (currentTail & this.indexMask)] = element;
+        this.tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the element at the head of the queue. Only called by the consumer thread.
+     *
+     * @return the removed element, or null if the queue was empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long currentHead = this.head.get();
+        if (currentHead >= this.cachedTail) {
+            this.cachedTail = this.tail.get();
+            if (currentHead >= this.cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) (currentHead & this.indexMask);
+        E element = (E) this.elements[index];
+        this.elements[index] = null;
+        this.head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    /**
+     * Waits a little before a failed operation is retried: spinning at first, then yielding the processor, then parking.
+     *
+     * @param idleCount number of times the operation has failed in a row
+     * @return the idle count to pass after the next failure
+     */
+    public static int backOff(int idleCount) {
+        if (idleCount < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else if (idleCount < YIELD_LIMIT) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return Math.min(idleCount + 1, YIELD_LIMIT);
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response sink that encodes responses into a reusable byte buffer and flushes it to a file channel whenever it fills
+ * up, so writing a response allocates nothing. Responses are terminated with the platform line separator, matching
+ * {@link java.io.BufferedWriter#newLine()}. Write failures are reported as {@link UncheckedIOException}.
+ */
+public class ChannelResponseSink implements ResponseSink, Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // Longest decimal representation of an int, i.e. "-2147483648".
+    private static final int MAX_INT_LENGTH = 11;
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer buffer;
+    private final byte[] lineSeparator;
+
+    public ChannelResponseSink(FileChannel fileChannel) {
+        this(fileChannel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param fileChannel channel the responses are written to
+     * @param bufferSize  number of bytes buffered before they are written to the channel
+     */
+    public ChannelResponseSink(FileChannel fileChannel, int bufferSize) {
+        this.fileChannel = fileChannel;
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, MAX_INT_LENGTH));
+        this.lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public ResponseSink append(String fragment) {
+        for (int index = 0; index < fragment.length(); index++) {
+            if (!this.buffer.hasRemaining()) {
+                this.flush();
+            }
+            this.buffer.put((byte) fragment.charAt(index));
+        }
+        return this;
+    }
+
+    @Override
+    public ResponseSink append(int value) {
+        if (this.buffer.remaining() < MAX_INT_LENGTH) {
+            this.flush();
+        }
+
+        long remaining = value;
+        if (remaining < 0) {
+            this.buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        int start = this.buffer.position();
+        do {
+            this.buffer.put((byte) ('0' + remaining % 10));
+            remaining /= 10;
+        } while (remaining > 0);
+
+        // Digits were written least significant first: reverse them in place.
+        for (int left = start, right = this.buffer.position() - 1; left < right; left++, right--) {
+            byte digit = this.buffer.get(left);
+            this.buffer.put(left, this.buffer.get(right));
+            this.buffer.put(right, digit);
+        }
+        return this;
+    }
+
+    @Override
+    public void endResponse() {
+        if (this.buffer.remaining() < this.lineSeparator.length) {
+            this.flush();
+        }
+        this.buffer.put(this.lineSeparator);
+    }
+
+    /**
+     * Writes the buffered responses to the channel.
+     */
+    public void flush() {
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.fileChannel.write(this.buffer);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            this.buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the buffered responses to the channel and forces them to disk.
+     */
+    public void sync() {
+        this.flush();
+        try {
+            this.fileChannel.force(false);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * @return number of bytes of responses in the file, including those still buffered.
+     */
+    public long position() {
+        try {
+            return this.fileChannel.position() + this.buffer.position();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Flushes the buffered responses and closes the channel.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.fileChannel.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Point of durable progress through an input: the number of commands executed and the length of the output holding
+ * their responses. Commands past the checkpoint are executed again after a restart, and the output is cut back to the
+ * checkpoint's length first, so every response is written exactly once.
+ */
+public class Checkpoint {
+    /**
+     * Checkpoint of an input on which no command has been executed.
+     */
+    public static final Checkpoint START = new Checkpoint(0, 0);
+
+    private final long commandCount;
+    private final long outputLength;
+
+    public Checkpoint(long commandCount, long outputLength) {
+        this.commandCount = commandCount;
+        this.outputLength = outputLength;
+    }
+
+    public long getCommandCount() {
+        return this.commandCount;
+    }
+
+    public long getOutputLength() {
+        return this.outputLength;
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response sink that collects the responses as strings, for callers which hand the responses of a command back to
+ * whoever submitted it rather than writing them to a file.
+ */
+public class CollectingResponseSink implements ResponseSink {
+    private final StringBuilder currentResponse;
+
+    private List<String> responses;
+
+    public CollectingResponseSink() {
+        this.currentResponse = new StringBuilder();
+        this.responses = new ArrayList<>();
+    }
+
+    @Override
+    public ResponseSink append(String fragment) {
+        this.currentResponse.append(fragment);
+        return this;
+    }
+
+    @Override
+    public ResponseSink append(int value) {
+        this.currentResponse.append(value);
+        return this;
+    }
+
+    @Override
+    public void endResponse() {
+        this.responses.add(this.currentResponse.toString());
+        this.currentResponse.setLength(0);
+    }
+
+    /**
+     * Returns the responses collected so far and starts collecting into a new list.
+     *
+     * @return responses in the order they were written
+     */
+    public List<String> takeResponses() {
+        List<String> collectedResponses = this.responses;
+        this.responses = new ArrayList<>();
+        this.currentResponse.setLength(0);
+        return collectedResponses;
+    }
+}
@@ -0,0 +1,328 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Append-only journal of the state-changing commands executed since the last snapshot. Commands are appended before
+ * they are executed, in the record layout of the binary command log (see {@link BinaryCommandFormat}), and a commit
+ * record carrying a {@link Checkpoint} closes every group of commands. A group is only made durable by its commit, so a
+ * whole batch costs a single {@code fsync}; on recovery, commands after the last commit record are discarded.
+ */
+public class CommandJournal implements Closeable {
+    private static final byte[] MAGIC = {'G', 'T', 'M', 'J'};
+    private static final byte VERSION = 1;
+    // Opcode of the commit record; no command uses it.
+    private static final int COMMIT_OPCODE = 0;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Opcode plus three varints of at most 10 bytes each, enough for any record.
+    private static final int MAX_RECORD_LENGTH = 31;
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer buffer;
+    private final Checkpoint recoveredCheckpoint;
+
+    private CommandJournal(FileChannel fileChannel, Checkpoint recoveredCheckpoint) {
+        this.fileChannel = fileChannel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.recoveredCheckpoint = recoveredCheckpoint;
+    }
+
+    /**
+     * Opens the journal for appending, first replaying into the handler the committed commands which come after the
+     * snapshot checkpoint. Records after the last commit record are cut off, as they were never made durable.
+     *
+     * @param journalPath        path of the journal file, created if missing
+     * @param snapshotCheckpoint checkpoint of the snapshot the handler was restored from
+     * @param inputActionsHandler handler the committed commands are replayed into
+     * @return the journal, positioned after its last commit record
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static CommandJournal open(Path journalPath, Checkpoint snapshotCheckpoint, InputActionsHandler inputActionsHandler) throws IOException {
+        Checkpoint checkpoint = snapshotCheckpoint;
+        long committedLength = MAGIC.length + 1;
+        if (Files.exists(journalPath) && Files.size(journalPath) >= committedLength) {
+            try (JournalInput input = new JournalInput(Files.newInputStream(journalPath))) {
+                input.readHeader();
+                Replay replay = new Replay(inputActionsHandler);
+                while (input.readRecord(replay)) {
+                    if (replay.isCommitted()) {
+                        if (replay.getCommitCheckpoint().getCommandCount() > checkpoint.getCommandCount()) {
+                            replay.apply();
+                            checkpoint = replay.getCommitCheckpoint();
+                        }
+                        replay.clear();
+                        committedLength = input.getPosition();
+                    }
+                }
+            }
+        }
+
+        FileChannel fileChannel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        CommandJournal journal = new CommandJournal(fileChannel, checkpoint);
+        if (fileChannel.size() < MAGIC.length + 1) {
+            journal.reset();
+        } else {
+            fileChannel.truncate(committedLength);
+            fileChannel.position(committedLength);
+        }
+        return journal;
+    }
+
+    /**
+     * @return checkpoint reached by the snapshot and the replayed journal, i.e. where processing of the input resumes.
+     */
+    public Checkpoint getRecoveredCheckpoint() {
+        return this.recoveredCheckpoint;
+    }
+
+    /**
+     * Appends a command to the current group. It only becomes durable with the next {@link #commit(Checkpoint)}.
+     *
+     * @param commandType    type of the command
+     * @param firstArgument  first argument of the command, ignored if the command takes none
+     * @param secondArgument second argument of the command, ignored if the command takes fewer than two
+     * @param thirdArgument  third argument of the command, ignored if the command takes fewer than three
+     * @throws IOException if the buffered records cannot be written
+     */
+    public void append(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument) throws IOException {
+        this.ensureRemaining();
+        this.buffer.put((byte) commandType.getOpcode());
+        if (commandType.getArgumentCount() > 0) {
+            this.putVarint(firstArgument & 0xFFFFFFFFL);
+        }
+        if (commandType.getArgumentCount() > 1) {
+            this.putVarint(secondArgument & 0xFFFFFFFFL);
+        }
+        if (commandType.getArgumentCount() > 2) {
+            this.putVarint(thirdArgument & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * Closes the current group with a commit record and forces the journal to disk.
+     *
+     * @param checkpoint progress reached once every command of the group has been executed
+     * @throws IOException if the journal cannot be written or forced
+     */
+    public void commit(Checkpoint checkpoint) throws IOException {
+        this.ensureRemaining();
+        this.buffer.put((byte) COMMIT_OPCODE);
+        this.putVarint(checkpoint.getCommandCount());
+        this.putVarint(checkpoint.getOutputLength());
+        this.writeBuffer();
+        this.fileChannel.force(false);
+    }
+
+    /**
+     * Discards every record, once a snapshot covering them has been written.
+     *
+     * @throws IOException if the journal cannot be truncated
+     */
+    public void reset() throws IOException {
+        this.buffer.clear();
+        this.fileChannel.truncate(0);
+        this.fileChannel.position(0);
+        this.buffer.put(MAGIC).put(VERSION);
+        this.writeBuffer();
+        this.fileChannel.force(false);
+    }
+
+    /**
+     * Closes the journal. Commands appended since the last commit are not written.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.fileChannel.close();
+    }
+
+    // Writes the buffered records out if the buffer might not hold one more record.
+    private void ensureRemaining() throws IOException {
+        if (this.buffer.remaining() < MAX_RECORD_LENGTH) {
+            this.writeBuffer();
+        }
+    }
+
+    // Writes the buffered records to the journal file.
+    private void writeBuffer() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.fileChannel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    // Encodes the value as an unsigned LEB128 varint.
+    private void putVarint(long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            this.buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        this.buffer.put((byte) remaining);
+    }
+
+    // Commands of the group being read, applied to the handler once the group's commit record is found.
+    private static class Replay {
+        private static final ResponseSink DISCARDED_RESPONSES = new ResponseSink() {
+            @Override
+            public ResponseSink append(String fragment) {
+                return this;
+            }
+
+            @Override
+            public ResponseSink append(int value) {
+                return this;
+            }
+
+            @Override
+            public void endResponse() {
+            }
+        };
+
+        private static final int ARGUMENTS_PER_COMMAND = 3;
+
+        private final InputActionsHandler inputActionsHandler;
+
+        private CommandType[] commandTypes = new CommandType[64];
+        private int[] arguments = new int[64 * ARGUMENTS_PER_COMMAND];
+        private int commandCount;
+        private Checkpoint commitCheckpoint;
+
+        Replay(InputActionsHandler inputActionsHandler) {
+            this.inputActionsHandler = inputActionsHandler;
+        }
+
+        void addCommand(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument) {
+            if (this.commandCount == this.commandTypes.length) {
+                this.commandTypes = Arrays.copyOf(this.commandTypes, this.commandCount * 2);
+                this.arguments = Arrays.copyOf(this.arguments, this.commandCount * 2 * ARGUMENTS_PER_COMMAND);
+            }
+            int argumentOffset = this.commandCount * ARGUMENTS_PER_COMMAND;
+            this.commandTypes[this.commandCount] = commandType;
+            this.arguments[argumentOffset] = firstArgument;
+            this.arguments[argumentOffset + 1] = secondArgument;
+            this.arguments[argumentOffset + 2] = thirdArgument;
+            this.commandCount++;
+        }
+
+        void commit(Checkpoint checkpoint) {
+            this.commitCheckpoint = checkpoint;
+        }
+
+        boolean isCommitted() {
+            return Objects.nonNull(this.commitCheckpoint);
+        }
+
+        Checkpoint getCommitCheckpoint() {
+            return this.commitCheckpoint;
+        }
+
+        void apply() {
+            for (int index = 0; index < this.commandCount; index++) {
+                int argumentOffset = index * ARGUMENTS_PER_COMMAND;
+                this.inputActionsHandler.execute(this.commandTypes[index], this.arguments[argumentOffset],
+                        this.arguments[argumentOffset + 1], this.arguments[argumentOffset + 2], DISCARDED_RESPONSES);
+            }
+        }
+
+        void clear() {
+            this.commandCount = 0;
+            this.commitCheckpoint = null;
+        }
+    }
+
+    // Sequential decoder of the journal records which tracks how many bytes were consumed.
+    private static class JournalInput implements Closeable {
+        private final InputStream inputStream;
+        private long position;
+
+        JournalInput(InputStream inputStream) {
+            this.inputStream = new BufferedInputStream(inputStream);
+        }
+
+        long getPosition() {
+            return this.position;
+        }
+
+        void readHeader() throws IOException {
+            for (byte magicByte : MAGIC) {
+                if (this.read() != (magicByte & 0xFF)) {
+                    throw new IOException("Not a command journal: magic bytes do not match");
+                }
+            }
+            int version = this.read();
+            if (version != VERSION) {
+                throw new IOException("Unsupported command journal version: " + version);
+            }
+        }
+
+        // Reads the next record into the replay; returns `false` at the end of the journal or at a torn record.
+        boolean readRecord(Replay replay) throws IOException {
+            int opcode = this.read();
+            if (opcode < 0) {
+                return false;
+            }
+            if (opcode == COMMIT_OPCODE) {
+                long commandCount = this.readVarint();
+                long outputLength = this.readVarint();
+                if (commandCount < 0 || outputLength < 0) {
+                    return false;
+                }
+                replay.commit(new Checkpoint(commandCount, outputLength));
+                return true;
+            }
+
+            CommandType commandType = CommandType.fromOpcode(opcode);
+            if (Objects.isNull(commandType)) {
+                return false;
+            }
+            long firstArgument = (commandType.getArgumentCount() > 0) ? this.readVarint() : 0;
+            long secondArgument = (commandType.getArgumentCount() > 1) ? this.readVarint() : 0;
+            long thirdArgument = (commandType.getArgumentCount() > 2) ? this.readVarint() : 0;
+            if (firstArgument < 0 || secondArgument < 0 || thirdArgument < 0) {
+                return false;
+            }
+            replay.addCommand(commandType, (int) firstArgument, (int) secondArgument, (int) thirdArgument);
+            return true;
+        }
+
+        // Decodes an unsigned LEB128 varint; returns -1 if the journal ends in the middle of it.
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int varintByte = this.read();
+                if (varintByte < 0) {
+                    return -1;
+                }
+                value |= (long) (varintByte & 0x7F) << shift;
+                if ((varintByte & 0x80) == 0) {
+                    return value;
+                }
+            }
+            return -1;
+        }
+
+        private int read() throws IOException {
+            int value = this.inputStream.read();
+            if (value >= 0) {
+                this.position++;
+            }
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Metrics of executed commands: the count and {@link LatencyHistogram} of every command type, and the state of the
+ * events' data structures. Every thread executing commands records into metrics of its own, shared by the handlers of
+ * all the events it executes, so recording takes no lock and contends with no other thread, allocates nothing once a
+ * command type's histogram exists, and thousands of events do not each hold histograms. The metrics of all threads are
+ * merged into one instance when they are reported.
+ */
+public class CommandMetrics {
+    private static final CommandType[] COMMAND_TYPES = CommandType.values();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String NAME_FORMAT = "%-18s %12s %12s";
+    private static final String VALUE_FORMAT = " %12s";
+
+    // Latencies indexed by command type ordinal, null until the first command of the type is recorded.
+    private final LatencyHistogram[] latencies;
+
+    private long peakWaitlistSize;
+
+    private int eventCount;
+    private long waitlistSize;
+    private long reservationCount;
+    private long availableSeatCount;
+    private int treeHeight;
+    private long treeRotationCount;
+
+    public CommandMetrics() {
+        this.latencies = new LatencyHistogram[COMMAND_TYPES.length];
+    }
+
+    /**
+     * Records an executed command.
+     *
+     * @param commandType  type of the command
+     * @param latencyNanos time the command took to execute, in nanoseconds
+     */
+    public void recordCommand(CommandType commandType, long latencyNanos) {
+        LatencyHistogram histogram = this.latencies[commandType.ordinal()];
+        if (Objects.isNull(histogram)) {
+            histogram = new LatencyHistogram();
+            this.latencies[commandType.ordinal()] = histogram;
+        }
+        histogram.record(latencyNanos);
+    }
+
+    /**
+     * Records the current size of the waitlist heap, keeping the largest size seen.
+     *
+     * @param size number of users in the waitlist
+     */
+    public void recordWaitlistSize(int size) {
+        this.peakWaitlistSize = Math.max(this.peakWaitlistSize, size);
+    }
+
+    /**
+     * Adds the commands recorded in other metrics to these, e.g. those of another event.
+     *
+     * @param metrics metrics to merge into these
+     */
+    public void add(CommandMetrics metrics) {
+        for (int index = 0; index < this.latencies.length; index++) {
+            if (Objects.isNull(metrics.latencies[index])) {
+                continue;
+            }
+            if (Objects.isNull(this.latencies[index])) {
+                this.latencies[index] = new LatencyHistogram();
+            }
+            this.latencies[index].add(metrics.latencies[index]);
+        }
+        this.peakWaitlistSize = Math.max(this.peakWaitlistSize, metrics.peakWaitlistSize);
+    }
+
+    /**
+     * @return number of commands recorded, of every type.
+     */
+    public long getCommandCount() {
+        long commandCount = 0;
+        for (LatencyHistogram histogram : this.latencies) {
+            if (Objects.nonNull(histogram)) {
+                commandCount += histogram.getTotalCount();
+            }
+        }
+        return commandCount;
+    }
+
+    /**
+     * @return number of users in the waitlists of the events added.
+     */
+    public long getWaitlistSize() {
+        return this.waitlistSize;
+    }
+
+    /**
+     * @return number of reserved seats of the events added.
+     */
+    public long getReservationCount() {
+        return this.reservationCount;
+    }
+
+    /**
+     * Adds the current state of an event's data structures.
+     *
+     * @param waitlistSize       number of users in the event's waitlist
+     * @param reservationCount   number of reserved seats of the event
+     * @param availableSeatCount number of free seats of the event
+     * @param treeHeight         height of the event's tallest reservation tree
+     * @param treeRotationCount  rotations performed by the event's reservation trees
+     */
+    public void addEventState(int waitlistSize, int reservationCount, int availableSeatCount, int treeHeight,
+                              long treeRotationCount) {
+        this.eventCount++;
+        this.waitlistSize += waitlistSize;
+        this.reservationCount += reservationCount;
+        this.availableSeatCount += availableSeatCount;
+        this.treeHeight = Math.max(this.treeHeight, treeHeight);
+        this.treeRotationCount += treeRotationCount;
+    }
+
+    /**
+     * Writes the metrics as a text report: a row of count, mean and latency percentiles in nanoseconds per command type,
+     * followed by the state of the events.
+     *
+     * @param metricsFilePath path of the report file
+     * @throws IOException if the report cannot be written
+     */
+    public void write(Path metricsFilePath) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(metricsFilePath)) {
+            writer.write(String.format(Locale.ROOT, NAME_FORMAT, "command", "count", "mean ns"));
+            for (double percentile : PERCENTILES) {
+                writer.write(String.format(Locale.ROOT, VALUE_FORMAT, "p" + formatPercentile(percentile) + " ns"));
+            }
+            writer.write(String.format(Locale.ROOT, VALUE_FORMAT, "max ns"));
+            writer.newLine();
+
+            for (CommandType commandType : COMMAND_TYPES) {
+                LatencyHistogram histogram = this.latencies[commandType.ordinal()];
+                if (Objects.isNull(histogram)) {
+                    continue;
+                }
+                writer.write(String.format(Locale.ROOT, NAME_FORMAT, commandType.getCommandName(), histogram.getTotalCount(),
+                        Math.round(histogram.getMean())));
+                for (double percentile : PERCENTILES) {
+                    writer.write(String.format(Locale.ROOT, VALUE_FORMAT, histogram.getValueAtPercentile(percentile)));
+                }
+                writer.write(String.format(Locale.ROOT, VALUE_FORMAT, histogram.getMaxValue()));
+                writer.newLine();
+            }
+
+            writer.newLine();
+            writer.write("Events: " + this.eventCount);
+            writer.newLine();
+            writer.write("Waitlist size: " + this.waitlistSize + " (peak " + this.peakWaitlistSize + ")");
+            writer.newLine();
+            writer.write("Reservations: " + this.reservationCount);
+            writer.newLine();
+            writer.write("Available seats: " + this.availableSeatCount);
+            writer.newLine();
+            writer.write("Reservation tree height: " + this.treeHeight);
+            writer.newLine();
+            writer.write("Reservation tree rotations: " + this.treeRotationCount);
+            writer.newLine();
+        }
+    }
+
+    // Percentile without trailing zeros, e.g. 99 or 99.9.
+    private static String formatPercentile(double percentile) {
+        return (percentile == Math.rint(percentile)) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
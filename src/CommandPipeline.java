@@ -0,0 +1,323 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Processes the commands of one input on three threads: a parser thread reading the commands, the calling thread
+ * executing them in order on the handler, and a writer thread encoding the responses and writing them to the sink.
+ * Commands and responses are handed over in batches through {@link BoundedSpscQueue}s and the batches are returned
+ * through queues of their own for reuse, so the stages exchange a fixed set of batches, bounding the commands and
+ * responses in flight, and allocate nothing per command. The handler records the fixed fragments and numbers of the
+ * responses into the batches, which the writer replays into the sink, so the output is the same as executing the
+ * commands inline. Like the inline processing, it stops after `Quit()` and skips commands addressed to other events.
+ * If a stage fails, the other stages stop and the failure is rethrown by {@link #process(CommandReader, ResponseSink)}.
+ */
+public class CommandPipeline {
+    // Batches of each kind, bounding the commands parsed ahead of execution and the responses awaiting writing.
+    private static final int BATCH_COUNT = 16;
+    private static final int COMMAND_BATCH_SIZE = 1024;
+    private static final int RESPONSE_BATCH_SIZE = 8 * 1024;
+
+    private final InputActionsHandler inputActionsHandler;
+    private final BoundedSpscQueue<CommandBatch> parsedCommands;
+    private final BoundedSpscQueue<CommandBatch> freeCommandBatches;
+    private final BoundedSpscQueue<ResponseBatch> executedResponses;
+    private final BoundedSpscQueue<ResponseBatch> freeResponseBatches;
+    // First failure of a stage, which stops the other stages.
+    private final AtomicReference<Throwable> failure;
+
+    // Written by the parser thread, read once it has been joined.
+    private long otherEventCommandCount;
+
+    /**
+     * @param inputActionsHandler handler executing the commands
+     */
+    public CommandPipeline(InputActionsHandler inputActionsHandler) {
+        this.inputActionsHandler = inputActionsHandler;
+        this.parsedCommands = new BoundedSpscQueue<>(BATCH_COUNT);
+        this.freeCommandBatches = new BoundedSpscQueue<>(BATCH_COUNT);
+        this.executedResponses = new BoundedSpscQueue<>(BATCH_COUNT);
+        this.freeResponseBatches = new BoundedSpscQueue<>(BATCH_COUNT);
+        this.failure = new AtomicReference<>();
+        for (int index = 0; index < BATCH_COUNT; index++) {
+            this.freeCommandBatches.offer(new CommandBatch());
+            this.freeResponseBatches.offer(new ResponseBatch());
+        }
+    }
+
+    /**
+     * Reads, executes and writes the responses of every command of the reader, executing on the calling thread.
+     * A pipeline processes a single input.
+     *
+     * @param reader    reader of the commands
+     * @param responses sink the responses are written to, only used by the writer thread until this returns
+     * @throws IOException          if the commands cannot be read
+     * @throws InterruptedException if interrupted while waiting for the other stages
+     */
+    public void process(CommandReader reader, ResponseSink responses) throws IOException, InterruptedException {
+        Thread parserThread = this.startStage("command-parser", () -> this.parse(reader));
+        Thread writerThread = this.startStage("response-writer", () -> this.write(responses));
+        this.runStage(this::execute);
+        try {
+            parserThread.join();
+            writerThread.join();
+        } catch (InterruptedException exception) {
+            this.failure.compareAndSet(null, exception);
+            throw exception;
+        }
+
+        Throwable stageFailure = this.failure.get();
+        if (stageFailure instanceof IOException) {
+            throw (IOException) stageFailure;
+        }
+        if (stageFailure instanceof RuntimeException) {
+            throw (RuntimeException) stageFailure;
+        }
+        if (stageFailure instanceof Error) {
+            throw (Error) stageFailure;
+        }
+    }
+
+    /**
+     * @return number of commands addressed to other events, which were skipped. Only valid once processing returned.
+     */
+    public long getOtherEventCommandCount() {
+        return this.otherEventCommandCount;
+    }
+
+    // Parser stage: reads the commands into batches up to the end of the input or `Quit()`.
+    private void parse(CommandReader reader) throws IOException {
+        CommandBatch batch = this.awaitPoll(this.freeCommandBatches);
+        boolean quit = false;
+        while (!quit && reader.nextCommand()) {
+            if (reader.getEventId() != CommandReader.DEFAULT_EVENT_ID) {
+                this.otherEventCommandCount++;
+                continue;
+            }
+            CommandType commandType = reader.getCommandType();
+            batch.add(commandType, reader.getArgument(0), reader.getArgument(1), reader.getArgument(2));
+            quit = commandType == CommandType.QUIT;
+            if (batch.size == COMMAND_BATCH_SIZE) {
+                this.awaitOffer(this.parsedCommands, batch);
+                batch = this.awaitPoll(this.freeCommandBatches);
+            }
+        }
+        batch.last = true;
+        this.awaitOffer(this.parsedCommands, batch);
+    }
+
+    // Executor stage: executes the parsed commands in order, recording their responses into batches.
+    private void execute() {
+        BatchingResponseSink responses = new BatchingResponseSink();
+        boolean last = false;
+        while (!last) {
+            CommandBatch batch = this.awaitPoll(this.parsedCommands);
+            for (int index = 0; index < batch.size; index++) {
+                int argumentsIndex = index * CommandBatch.MAX_ARGUMENTS;
+                this.inputActionsHandler.execute(batch.commandTypes[index], batch.arguments[argumentsIndex],
+                        batch.arguments[argumentsIndex + 1], batch.arguments[argumentsIndex + 2], responses);
+            }
+            last = batch.last;
+            batch.clear();
+            this.awaitOffer(this.freeCommandBatches, batch);
+        }
+        responses.finish();
+    }
+
+    // Writer stage: replays the recorded responses into the sink in order.
+    private void write(ResponseSink responses) {
+        boolean last = false;
+        while (!last) {
+            ResponseBatch batch = this.awaitPoll(this.executedResponses);
+            batch.replay(responses);
+            last = batch.last;
+            batch.clear();
+            this.awaitOffer(this.freeResponseBatches, batch);
+        }
+    }
+
+    // Starts a stage on its own thread.
+    private Thread startStage(String threadName, Stage stage) {
+        Thread thread = new Thread(() -> this.runStage(stage), threadName);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // Runs a stage, recording its failure so that the other stages stop instead of waiting for it forever.
+    private void runStage(Stage stage) {
+        try {
+            stage.run();
+        } catch (Throwable throwable) {
+            this.failure.compareAndSet(null, throwable);
+        }
+    }
+
+    // Offers the element, waiting while the queue is full.
+    private <E> void awaitOffer(BoundedSpscQueue<E> queue, E element) {
+        int idleCount = 0;
+        while (!queue.offer(element)) {
+            this.checkFailure();
+            idleCount = BoundedSpscQueue.backOff(idleCount);
+        }
+    }
+
+    // Polls an element, waiting while the queue is empty.
+    private <E> E awaitPoll(BoundedSpscQueue<E> queue) {
+        int idleCount = 0;
+        E element;
+        while (Objects.isNull(element = queue.poll())) {
+            this.checkFailure();
+            idleCount = BoundedSpscQueue.backOff(idleCount);
+        }
+        return element;
+    }
+
+    // Stops the waiting stage if another stage failed.
+    private void checkFailure() {
+        if (Objects.nonNull(this.failure.get())) {
+            throw new CancellationException("Another stage of the command pipeline failed.");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws IOException;
+    }
+
+    // Commands handed from the parser to the executor.
+    private static class CommandBatch {
+        private static final int MAX_ARGUMENTS = 3;
+
+        private final CommandType[] commandTypes;
+        private final int[] arguments;
+
+        private int size;
+        // Whether this is the last batch of the input.
+        private boolean last;
+
+        CommandBatch() {
+            this.commandTypes = new CommandType[COMMAND_BATCH_SIZE];
+            this.arguments = new int[COMMAND_BATCH_SIZE * MAX_ARGUMENTS];
+        }
+
+        void add(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument) {
+            int argumentsIndex = this.size * MAX_ARGUMENTS;
+            this.commandTypes[this.size] = commandType;
+            this.arguments[argumentsIndex] = firstArgument;
+            this.arguments[argumentsIndex + 1] = secondArgument;
+            this.arguments[argumentsIndex + 2] = thirdArgument;
+            this.size++;
+        }
+
+        void clear() {
+            this.size = 0;
+            this.last = false;
+        }
+    }
+
+    // Responses handed from the executor to the writer, as a sequence of fragments, numbers and response ends.
+    private static class ResponseBatch {
+        private static final byte FRAGMENT = 0;
+        private static final byte NUMBER = 1;
+        private static final byte END_OF_RESPONSE = 2;
+
+        private final byte[] kinds;
+        private final String[] fragments;
+        private final int[] numbers;
+
+        private int size;
+        // Whether this is the last batch of the input.
+        private boolean last;
+
+        ResponseBatch() {
+            this.kinds = new byte[RESPONSE_BATCH_SIZE];
+            this.fragments = new String[RESPONSE_BATCH_SIZE];
+            this.numbers = new int[RESPONSE_BATCH_SIZE];
+        }
+
+        boolean isFull() {
+            return this.size == RESPONSE_BATCH_SIZE;
+        }
+
+        void addFragment(String fragment) {
+            this.kinds[this.size] = FRAGMENT;
+            this.fragments[this.size++] = fragment;
+        }
+
+        void addNumber(int number) {
+            this.kinds[this.size] = NUMBER;
+            this.numbers[this.size++] = number;
+        }
+
+        void addEndOfResponse() {
+            this.kinds[this.size++] = END_OF_RESPONSE;
+        }
+
+        void replay(ResponseSink responses) {
+            for (int index = 0; index < this.size; index++) {
+                switch (this.kinds[index]) {
+                    case FRAGMENT:
+                        responses.append(this.fragments[index]);
+                        break;
+                    case NUMBER:
+                        responses.append(this.numbers[index]);
+                        break;
+                    default:
+                        responses.endResponse();
+                        break;
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(this.fragments, 0, this.size, null);
+            this.size = 0;
+            this.last = false;
+        }
+    }
+
+    // Sink recording the responses of the executor into batches and handing each full batch to the writer.
+    private class BatchingResponseSink implements ResponseSink {
+        private ResponseBatch batch;
+
+        BatchingResponseSink() {
+            this.batch = awaitPoll(freeResponseBatches);
+        }
+
+        @Override
+        public ResponseSink append(String fragment) {
+            this.ensureCapacity();
+            this.batch.addFragment(fragment);
+            return this;
+        }
+
+        @Override
+        public ResponseSink append(int value) {
+            this.ensureCapacity();
+            this.batch.addNumber(value);
+            return this;
+        }
+
+        @Override
+        public void endResponse() {
+            this.ensureCapacity();
+            this.batch.addEndOfResponse();
+        }
+
+        // Hands the last batch to the writer.
+        void finish() {
+            this.batch.last = true;
+            awaitOffer(executedResponses, this.batch);
+        }
+
+        private void ensureCapacity() {
+            if (this.batch.isFull()) {
+                awaitOffer(executedResponses, this.batch);
+                this.batch = awaitPoll(freeResponseBatches);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of input commands. After {@link #nextCommand()} returns {@code true}, the command and its arguments are
+ * available through the getters until the next call.
+ */
+public interface CommandReader extends Closeable {
+    /**
+     * Event of the commands which are not addressed to any event.
+     */
+    int DEFAULT_EVENT_ID = 0;
+
+    /**
+     * Advances to the next valid command, skipping lines that are not valid commands.
+     *
+     * @return `true` if a command was read, `false` at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    boolean nextCommand() throws IOException;
+
+    /**
+     * @return type of the current command.
+     */
+    CommandType getCommandType();
+
+    /**
+     * @param argumentIndex zero-based position of the argument.
+     * @return integer argument of the current command.
+     */
+    int getArgument(int argumentIndex);
+
+    /**
+     * @return event the current command is addressed to, {@link #DEFAULT_EVENT_ID} if the input does not address events.
+     */
+    default int getEventId() {
+        return DEFAULT_EVENT_ID;
+    }
+}
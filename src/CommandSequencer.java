@@ -0,0 +1,147 @@
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Single-writer executor of commands submitted from any number of threads. Submitted commands go through a lock-free
+ * queue to the sequencer thread, the only thread that touches the handlers of its events, which executes them one at a
+ * time in arrival order. Submitting threads only contend on the queue's compare-and-set, and the sequencer drains every
+ * queued command per wake-up, parking when the queue is empty.
+ */
+public class CommandSequencer implements AutoCloseable {
+    private final IntFunction<InputActionsHandler> handlerForEvent;
+    private final Queue<Submission> submissions;
+    private final Thread thread;
+    private final Logger logger;
+
+    private volatile boolean accepting;
+    private volatile boolean parked;
+
+    /**
+     * @param threadName      name of the sequencer thread
+     * @param handlerForEvent handler executing the commands of an event; only called on the sequencer thread
+     */
+    public CommandSequencer(String threadName, IntFunction<InputActionsHandler> handlerForEvent) {
+        this.handlerForEvent = handlerForEvent;
+        this.submissions = new ConcurrentLinkedQueue<>();
+        this.logger = new Logger();
+        this.accepting = true;
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Submits a command for execution.
+     *
+     * @param eventId        event the command is addressed to
+     * @param commandType    type of the command
+     * @param firstArgument  first argument of the command, ignored if the command takes none
+     * @param secondArgument second argument of the command, ignored if the command takes fewer than two
+     * @param thirdArgument  third argument of the command, ignored if the command takes fewer than three
+     * @return future completed with the responses of the command once it has been executed
+     * @throws IllegalStateException if the sequencer has been closed
+     */
+    public CompletableFuture<List<String>> submit(int eventId, CommandType commandType, int firstArgument, int secondArgument,
+                                                  int thirdArgument) {
+        if (!this.accepting) {
+            throw new IllegalStateException("Command sequencer is closed.");
+        }
+        Submission submission = new Submission(eventId, commandType, firstArgument, secondArgument, thirdArgument);
+        this.submissions.offer(submission);
+        // The sequencer was closed meanwhile: withdraw the command unless the sequencer already took it.
+        if (!this.accepting && this.submissions.remove(submission)) {
+            throw new IllegalStateException("Command sequencer is closed.");
+        }
+        if (this.parked) {
+            LockSupport.unpark(this.thread);
+        }
+        return submission.result;
+    }
+
+    /**
+     * Stops accepting commands, waits for every command already submitted to be executed and stops the sequencer thread.
+     * If interrupted while waiting, returns early with the interrupt flag set, leaving the sequencer thread to finish the
+     * commands on its own; {@link #isTerminated()} tells whether it has.
+     */
+    @Override
+    public void close() {
+        this.accepting = false;
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return `true` once the sequencer has been closed and has executed every command submitted to it.
+     */
+    public boolean isTerminated() {
+        return !this.accepting && !this.thread.isAlive();
+    }
+
+    // Executes the submitted commands in arrival order until the sequencer is closed and the queue is drained.
+    private void run() {
+        CollectingResponseSink responses = new CollectingResponseSink();
+        while (true) {
+            Submission submission = this.submissions.poll();
+            if (Objects.nonNull(submission)) {
+                this.execute(submission, responses);
+                continue;
+            }
+            if (!this.accepting) {
+                // A submission may have been queued just before the sequencer stopped accepting.
+                if (this.submissions.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            // Announce the park before checking the queue again, so a submitter either sees the flag or its command is seen here.
+            this.parked = true;
+            if (this.submissions.isEmpty() && this.accepting) {
+                LockSupport.park(this);
+            }
+            this.parked = false;
+        }
+    }
+
+    // Executes a single command and completes its future with the responses.
+    private void execute(Submission submission, CollectingResponseSink responses) {
+        try {
+            InputActionsHandler inputActionsHandler = this.handlerForEvent.apply(submission.eventId);
+            inputActionsHandler.execute(submission.commandType, submission.firstArgument, submission.secondArgument,
+                    submission.thirdArgument, responses);
+            submission.result.complete(responses.takeResponses());
+        } catch (RuntimeException exception) {
+            responses.takeResponses();
+            logger.error(() -> "Exception when executing " + submission.commandType.getCommandName() + ": " + exception);
+            submission.result.completeExceptionally(exception);
+        }
+    }
+
+    // Command waiting in the queue along with the future for its responses.
+    private static class Submission {
+        private final int eventId;
+        private final CommandType commandType;
+        private final int firstArgument;
+        private final int secondArgument;
+        private final int thirdArgument;
+        private final CompletableFuture<List<String>> result;
+
+        Submission(int eventId, CommandType commandType, int firstArgument, int secondArgument, int thirdArgument) {
+            this.eventId = eventId;
+            this.commandType = commandType;
+            this.firstArgument = firstArgument;
+            this.secondArgument = secondArgument;
+            this.thirdArgument = thirdArgument;
+            this.result = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.util.Objects;
+
+/**
+ * Single-pass tokenizer for the input command syntax, e.g. {@code Reserve(12, 3)}.
+ * The command name is matched in place against the known commands and the integer arguments are accumulated digit by
+ * digit, so tokenizing a line compiles no regex and allocates nothing. The accepted syntax is the same as the regexes
+ * it replaces: no leading whitespace, optional whitespace after each comma and trailing whitespace after the closing parenthesis.
+ * A command may be addressed to an event with a prefix separated by whitespace, e.g. {@code Event(7) Reserve(12, 3)};
+ * commands without the prefix belong to the default event.
+ */
+public class CommandTokenizer {
+    private static final CommandType[] COMMAND_TYPES = CommandType.values();
+    private static final int MAX_ARGUMENTS = 3;
+    private static final String EVENT_PREFIX = "Event(";
+
+    private final int[] arguments;
+
+    private CommandType commandType;
+
+    private int eventId;
+
+    public CommandTokenizer() {
+        this.arguments = new int[MAX_ARGUMENTS];
+    }
+
+    /**
+     * Tokenizes the line into a command and its arguments, which are then available through the getters.
+     *
+     * @param line to tokenize
+     * @return `true` if the line is a valid command, `false` otherwise
+     */
+    public boolean tokenize(CharSequence line) {
+        this.commandType = null;
+        this.eventId = CommandReader.DEFAULT_EVENT_ID;
+
+        int length = line.length();
+        int nameStart = 0;
+        if (startsWith(line, EVENT_PREFIX)) {
+            nameStart = this.tokenizeEventPrefix(line);
+            if (nameStart < 0) {
+                return false;
+            }
+        }
+
+        int position = nameStart;
+        while (position < length && line.charAt(position) != '(') {
+            position++;
+        }
+        if (position == length) {
+            return false;
+        }
+
+        CommandType matchedType = matchCommandName(line, nameStart, position - nameStart);
+        if (Objects.isNull(matchedType)) {
+            return false;
+        }
+        position++;
+
+        for (int argumentIndex = 0; argumentIndex < matchedType.getArgumentCount(); argumentIndex++) {
+            if (argumentIndex > 0) {
+                if (position >= length || line.charAt(position) != ',') {
+                    return false;
+                }
+                position++;
+                while (position < length && isWhitespace(line.charAt(position))) {
+                    position++;
+                }
+            }
+
+            long argument = 0;
+            int digitsStart = position;
+            while (position < length && isDigit(line.charAt(position))) {
+                argument = (argument * 10) + (line.charAt(position) - '0');
+                if (argument > Integer.MAX_VALUE) {
+                    return false;
+                }
+                position++;
+            }
+            if (position == digitsStart) {
+                return false;
+            }
+            this.arguments[argumentIndex] = (int) argument;
+        }
+
+        if (position >= length || line.charAt(position) != ')') {
+            return false;
+        }
+        position++;
+        while (position < length) {
+            if (!isWhitespace(line.charAt(position))) {
+                return false;
+            }
+            position++;
+        }
+
+        this.commandType = matchedType;
+        return true;
+    }
+
+    /**
+     * @return command of the last tokenized line, or null if the line was not a valid command.
+     */
+    public CommandType getCommandType() {
+        return this.commandType;
+    }
+
+    /**
+     * @param argumentIndex zero-based position of the argument.
+     * @return integer argument of the last tokenized line.
+     */
+    public int getArgument(int argumentIndex) {
+        return this.arguments[argumentIndex];
+    }
+
+    /**
+     * @return event the last tokenized line is addressed to, {@link CommandReader#DEFAULT_EVENT_ID} if it has no event prefix.
+     */
+    public int getEventId() {
+        return this.eventId;
+    }
+
+    // Reads the event ID of the prefix and returns the position of the command name after it, or -1 if the prefix is malformed.
+    private int tokenizeEventPrefix(CharSequence line) {
+        int length = line.length();
+        int position = EVENT_PREFIX.length();
+        long parsedEventId = 0;
+        int digitsStart = position;
+        while (position < length && isDigit(line.charAt(position))) {
+            parsedEventId = (parsedEventId * 10) + (line.charAt(position) - '0');
+            if (parsedEventId > Integer.MAX_VALUE) {
+                return -1;
+            }
+            position++;
+        }
+        if (position == digitsStart || position >= length || line.charAt(position) != ')') {
+            return -1;
+        }
+        position++;
+
+        int whitespaceStart = position;
+        while (position < length && isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        if (position == whitespaceStart) {
+            return -1;
+        }
+        this.eventId = (int) parsedEventId;
+        return position;
+    }
+
+    // Checks whether the line starts with the prefix without creating a substring.
+    private static boolean startsWith(CharSequence line, String prefix) {
+        if (line.length() < prefix.length()) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length(); index++) {
+            if (line.charAt(index) != prefix.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Matches the characters before the opening parenthesis against the command names without creating a substring.
+    private static CommandType matchCommandName(CharSequence line, int nameStart, int nameLength) {
+        for (CommandType commandType : COMMAND_TYPES) {
+            String commandName = commandType.getCommandName();
+            if (commandName.length() != nameLength) {
+                continue;
+            }
+            int index = 0;
+            while (index < nameLength && commandName.charAt(index) == line.charAt(nameStart + index)) {
+                index++;
+            }
+            if (index == nameLength) {
+                return commandType;
+            }
+        }
+        return null;
+    }
+
+    // Digits as matched by the regex \d.
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    // Whitespace as matched by the regex \s.
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B' || character == '\f' || character == '\r';
+    }
+}
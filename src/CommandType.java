@@ -0,0 +1,70 @@
+/**
+ * Commands supported in the input, along with their name in the input syntax, the number of integer arguments they take,
+ * their opcode in the binary command log format and whether they change the state of the event.
+ */
+public enum CommandType {
+    INITIALIZE("Initialize", 1, 1, true),
+    AVAILABLE("Available", 0, 2, false),
+    RESERVE("Reserve", 2, 3, true),
+    CANCEL("Cancel", 2, 4, true),
+    EXIT_WAITLIST("ExitWaitlist", 1, 5, true),
+    UPDATE_PRIORITY("UpdatePriority", 2, 6, true),
+    ADD_SEATS("AddSeats", 1, 7, true),
+    PRINT_RESERVATIONS("PrintReservations", 0, 8, false),
+    SEAT_STATUS("SeatStatus", 1, 9, false),
+    RELEASE_SEATS("ReleaseSeats", 2, 10, true),
+    RESERVE_BATCH("ReserveBatch", 3, 12, true),
+    RESERVE_BLOCK("ReserveBlock", 2, 13, true),
+    QUIT("Quit", 0, 11, false);
+
+    // Command types indexed by their opcode.
+    private static final CommandType[] BY_OPCODE = new CommandType[values().length + 1];
+
+    static {
+        for (CommandType commandType : values()) {
+            BY_OPCODE[commandType.opcode] = commandType;
+        }
+    }
+
+    private final String commandName;
+    private final int argumentCount;
+    private final int opcode;
+    private final boolean mutating;
+
+    CommandType(String commandName, int argumentCount, int opcode, boolean mutating) {
+        this.commandName = commandName;
+        this.argumentCount = argumentCount;
+        this.opcode = opcode;
+        this.mutating = mutating;
+    }
+
+    /**
+     * @param opcode opcode of the command in the binary command log format.
+     * @return the command type with the opcode, or `null` if no command has the opcode.
+     */
+    public static CommandType fromOpcode(int opcode) {
+        if (opcode <= 0 || opcode >= BY_OPCODE.length) {
+            return null;
+        }
+        return BY_OPCODE[opcode];
+    }
+
+    public String getCommandName() {
+        return this.commandName;
+    }
+
+    public int getArgumentCount() {
+        return this.argumentCount;
+    }
+
+    public int getOpcode() {
+        return this.opcode;
+    }
+
+    /**
+     * @return `true` if the command changes the state of the event, `false` if it only reports it.
+     */
+    public boolean isMutating() {
+        return this.mutating;
+    }
+}
@@ -1,149 +1,329 @@
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class FileIOProcessor {
-    private static final String INITIALIZE_REGEX = "Initialize\\((\\d+)\\)\\s*$";
-    private static final String AVAILABLE_REGEX = "Available\\(\\)\\s*$";
-    private static final String RESERVE_REGEX = "Reserve\\((\\d+),\\s*(\\d+)\\)\\s*$";
-    private static final String CANCEL_REGEX = "Cancel\\((\\d+),\\s*(\\d+)\\)\\s*$";
-    private static final String EXIT_WAITLIST_REGEX = "ExitWaitlist\\((\\d+)\\)\\s*$";
-    private static final String UPDATE_PRIORITY_REGEX = "UpdatePriority\\((\\d+),\\s*(\\d+)\\)\\s*$";
-    private static final String ADD_SEATS_REGEX = "AddSeats\\((\\d+)\\)\\s*$";
-    private static final String PRINT_RESERVATIONS_REGEX = "PrintReservations\\(\\)\\s*$";
-    private static final String RELEASE_SEATS_REGEX = "ReleaseSeats\\((\\d+),\\s*(\\d+)\\)\\s*$";
-    private static final String QUIT_REGEX = "Quit\\(\\)\\s*$";
+    // Commands submitted to the sharded engine whose responses have not been written yet, beyond which reading waits.
+    private static final int MAX_PENDING_EVENT_COMMANDS = 64 * 1024;
+    // Input files of at least this size are memory-mapped and parsed from the mapped bytes instead of decoded line by line.
+    private static final long MAPPED_INPUT_THRESHOLD = 64L * 1024 * 1024;
+    private static final String OUTPUT_FILE_SUFFIX = "_output_file";
+    private static final String METRICS_FILE_SUFFIX = "_metrics_file";
+    // Whether the command metrics of every run are written into a metrics file next to the input file.
+    private static final boolean METRICS_FILE_ENABLED = Boolean.getBoolean("gator.metrics");
+    // Threads used by a pipelined run: parsing, execution and writing.
+    private static final int PIPELINE_THREAD_COUNT = 3;
 
     private final Logger logger;
+    // Commands executed by the handler, recorded on whichever single thread executes them.
+    private final CommandMetrics commandMetrics;
     private final InputActionsHandler inputActionsHandler;
+    private final boolean pipelined;
+
+    // Metrics of the last file processed successfully, null until then.
+    private CommandMetrics metrics;
 
     public FileIOProcessor() {
+        this(Runtime.getRuntime().availableProcessors() >= PIPELINE_THREAD_COUNT);
+    }
+
+    /**
+     * @param pipelined whether files processed without recovery are parsed, executed and written on three threads by a
+     *                  {@link CommandPipeline}, rather than inline on the calling thread
+     */
+    public FileIOProcessor(boolean pipelined) {
         logger = new Logger();
-        inputActionsHandler = new InputActionsHandler();
+        commandMetrics = new CommandMetrics();
+        inputActionsHandler = new InputActionsHandler(commandMetrics);
+        this.pipelined = pipelined;
     }
 
     /**
-     * Process the inputs from the file, collect the responses, and write them to the corresponding output file.
+     * Process the inputs from the file as a stream, executing each command as it is read and writing its responses
+     * to the corresponding output file right away, so memory stays constant regardless of the file size. Large input
+     * files are memory-mapped and parsed without creating a {@code String} per line. Binary command logs are detected
+     * from their header and decoded directly.
      *
      * @param fileNamePath path of the input file
      */
     public void processFile(String fileNamePath) {
-        logger.info("Started processing inputs for Gator Ticket Master.");
-
-        List<String> responses = this.readFile(fileNamePath);
-        this.writeFile(fileNamePath, responses);
-
-        logger.info("Completed processing tickets.");
+        this.processFile(fileNamePath, null);
     }
 
-    // Read file from the file path and process accordingly.
-    private List<String> readFile(String fileNamePath) {
+    /**
+     * Process the inputs from the file as in {@link #processFile(String)}, journaling the progress and snapshotting the
+     * state in the recovery directory. If a previous run on the same input crashed, the state is recovered and processing
+     * resumes after the last committed command, appending to the output it had durably written.
+     *
+     * @param fileNamePath          path of the input file
+     * @param recoveryDirectoryPath directory holding the snapshot and the journal, or `null` to process without them
+     */
+    public void processFile(String fileNamePath, String recoveryDirectoryPath) {
+        logger.info("Started processing inputs for Gator Ticket Master.");
+
+        String outputFileNamePath = this.getOutputFilePath(fileNamePath, OUTPUT_FILE_SUFFIX);
         logger.info("Reading from input file: " + fileNamePath);
+        logger.info("Writing responses into output file: " + outputFileNamePath);
 
-        Path filePath = Paths.get(fileNamePath);
-        List<String> responses = new ArrayList<>();
-
-        try (Stream<String> lines = Files.lines(filePath)) {
-            List<String> inputLines = lines.collect(Collectors.toList());
-            for (String line : inputLines) {
-                if (line.matches(QUIT_REGEX)) {
-                    responses.add(inputActionsHandler.quit());
-                    break;
+        try (RecoveryManager recoveryManager = Objects.isNull(recoveryDirectoryPath) ? null
+                : new RecoveryManager(Paths.get(recoveryDirectoryPath), inputActionsHandler)) {
+            Checkpoint checkpoint = Objects.isNull(recoveryManager) ? Checkpoint.START : recoveryManager.recover();
+            try (CommandReader reader = this.openCommandReader(Paths.get(fileNamePath));
+                 ChannelResponseSink responses = this.openResponseSink(Paths.get(outputFileNamePath), checkpoint.getOutputLength())) {
+                if (this.pipelined && Objects.isNull(recoveryManager)) {
+                    this.processCommandsPipelined(reader, responses);
+                } else if (this.skipCommands(reader, checkpoint.getCommandCount())) {
+                    logger.info("The recovered run already reached Quit(); nothing left to process.");
+                } else {
+                    this.processCommands(reader, responses, recoveryManager, checkpoint.getCommandCount());
                 }
-                responses.addAll(this.processLine(line));
             }
-        } catch (IOException exception) {
-            logger.error("Error reading the file: " + exception);
+            Logger.flush();
+            System.out.println("Data successfully written to the file");
+
+            CommandMetrics metrics = new CommandMetrics();
+            metrics.add(commandMetrics);
+            inputActionsHandler.collectMetrics(metrics);
+            this.writeMetrics(metrics, fileNamePath);
+            this.metrics = metrics;
+        } catch (IOException | UncheckedIOException exception) {
+            logger.error("Error processing the file: " + exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while processing the file: " + exception);
         }
 
-        return responses;
+        logger.info("Completed processing tickets.");
     }
 
-    // Write the responses collected to the output file.
-    private void writeFile(String fileNamePath, List<String> responses) {
-        String[] fileDetails = fileNamePath.split("\\.", 2);
-        String outputFileNamePath = fileDetails[0] + "_output_file." + ((Objects.isNull(fileDetails[1])) ? ".txt" : fileDetails[1]);
+    /**
+     * Process an input file addressing many events, e.g. {@code Event(7) Reserve(12, 3)}, on a {@link ShardedBookingEngine}.
+     * Each event has its own seats, waitlist and reservations, and the events are executed in parallel across the shards.
+     * Responses are written in the order of the input. `Quit()` ends the processing of every event.
+     *
+     * @param fileNamePath path of the input file
+     * @param shardCount   number of worker threads the events are sharded across
+     */
+    public void processEventsFile(String fileNamePath, int shardCount) {
+        logger.info("Started processing inputs for Gator Ticket Master on " + shardCount + " event shards.");
 
+        String outputFileNamePath = this.getOutputFilePath(fileNamePath, OUTPUT_FILE_SUFFIX);
+        logger.info("Reading from input file: " + fileNamePath);
         logger.info("Writing responses into output file: " + outputFileNamePath);
 
+        ShardedBookingEngine bookingEngine = new ShardedBookingEngine(shardCount);
         try {
-            Files.write(Paths.get(outputFileNamePath), responses);
+            try (CommandReader reader = this.openCommandReader(Paths.get(fileNamePath));
+                 ChannelResponseSink responses = this.openResponseSink(Paths.get(outputFileNamePath), 0)) {
+                this.processEventCommands(reader, responses, bookingEngine);
+            } finally {
+                // Shut the engine down once, waiting for the commands still executing, whether or not processing failed.
+                bookingEngine.close();
+            }
+            Logger.flush();
             System.out.println("Data successfully written to the file");
+
+            if (Thread.currentThread().isInterrupted()) {
+                logger.error("Interrupted while waiting for the event shards to stop.");
+            } else {
+                CommandMetrics metrics = new CommandMetrics();
+                bookingEngine.collectMetrics(metrics);
+                this.writeMetrics(metrics, fileNamePath);
+                this.metrics = metrics;
+            }
+        } catch (IOException | UncheckedIOException | CompletionException exception) {
+            logger.error("Error processing the file: " + exception);
+        }
+
+        logger.info("Completed processing tickets.");
+    }
+
+    /**
+     * @param filePath path of a file.
+     * @return `true` if the file is an output or metrics file produced by processing an input file, `false` otherwise.
+     */
+    public static boolean isProducedFile(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        return fileName.contains(OUTPUT_FILE_SUFFIX + ".") || fileName.contains(METRICS_FILE_SUFFIX + ".");
+    }
+
+    /**
+     * @return metrics of the commands of the last file processed successfully, or null if no file was.
+     */
+    public CommandMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Convert the commands of a text input file into the binary command log format. Lines that are not valid commands
+     * are dropped, as they produce no response.
+     *
+     * @param fileNamePath       path of the text input file
+     * @param binaryFileNamePath path of the binary command log to write
+     */
+    public void convertFile(String fileNamePath, String binaryFileNamePath) {
+        logger.info("Converting input file " + fileNamePath + " into binary command log " + binaryFileNamePath);
+
+        try (CommandReader reader = this.openCommandReader(Paths.get(fileNamePath));
+             BinaryCommandWriter writer = new BinaryCommandWriter(new BufferedOutputStream(Files.newOutputStream(Paths.get(binaryFileNamePath))))) {
+            long commandCount = writer.writeAll(reader);
+            logger.info("Converted " + commandCount + " commands.");
         } catch (IOException exception) {
-            System.err.println("Error writing to file: " + exception);
+            logger.error("Error converting the file: " + exception);
         }
     }
 
-    // Process line as per the matched regex.
-    private List<String> processLine(String line) {
-        List<String> responseStrings = new ArrayList<>();
+    // Reader for the input file: binary reader for binary command logs, memory-mapped for large text files, buffered line reader otherwise.
+    private CommandReader openCommandReader(Path inputFilePath) throws IOException {
+        if (BinaryCommandFormat.isBinaryCommandLog(inputFilePath)) {
+            logger.info("Reading binary command log.");
+            return new BinaryCommandReader(inputFilePath);
+        }
+        if (Files.size(inputFilePath) >= MAPPED_INPUT_THRESHOLD) {
+            logger.info("Memory-mapping input file of " + Files.size(inputFilePath) + " bytes.");
+            return new MappedCommandReader(inputFilePath);
+        }
+        return new TextCommandReader(Files.newBufferedReader(inputFilePath));
+    }
 
-        if (line.matches(INITIALIZE_REGEX)) {
-            Matcher matcher = this.getMatcher(INITIALIZE_REGEX, line);
-            if (matcher.find()) {
-                int seatCount = Integer.parseInt(matcher.group(1));
-                responseStrings.add(inputActionsHandler.initialize(seatCount));
+    // Sink writing the responses to the output file after its first `outputLength` bytes, discarding anything past them.
+    private ChannelResponseSink openResponseSink(Path outputFilePath, long outputLength) throws IOException {
+        if (outputLength == 0) {
+            return new ChannelResponseSink(FileChannel.open(outputFilePath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        }
+        FileChannel fileChannel = FileChannel.open(outputFilePath, StandardOpenOption.WRITE);
+        if (fileChannel.size() < outputLength) {
+            fileChannel.close();
+            throw new IOException("Output file is shorter than the recovered checkpoint: " + outputFilePath);
+        }
+        fileChannel.truncate(outputLength);
+        fileChannel.position(outputLength);
+        return new ChannelResponseSink(fileChannel);
+    }
+
+    // Skips the commands which were already executed before recovery. Returns `true` if one of them was `Quit()`, i.e.
+    // the recovered run was complete and the commands after it must not be executed.
+    private boolean skipCommands(CommandReader reader, long commandCount) throws IOException {
+        for (long skipped = 0; skipped < commandCount && reader.nextCommand(); skipped++) {
+            if (reader.getEventId() == CommandReader.DEFAULT_EVENT_ID && reader.getCommandType() == CommandType.QUIT) {
+                return true;
             }
-        } else if (line.matches(AVAILABLE_REGEX)) {
-            responseStrings.add(inputActionsHandler.available());
-        } else if (line.matches(RESERVE_REGEX)) {
-            Matcher matcher = this.getMatcher(RESERVE_REGEX, line);
-            if (matcher.find()) {
-                int userId = Integer.parseInt(matcher.group(1));
-                int userPriority = Integer.parseInt(matcher.group(2));
-                responseStrings.add(inputActionsHandler.reserve(userId, userPriority));
+        }
+        return false;
+    }
+
+    // Read the commands one by one and write the responses of each command to the sink as soon as it is executed,
+    // journaling them through the recovery manager if there is one.
+    private void processCommands(CommandReader reader, ChannelResponseSink responses, RecoveryManager recoveryManager,
+                                 long executedCommands) throws IOException {
+        long commandCount = executedCommands;
+        long otherEventCommands = 0;
+        while (reader.nextCommand()) {
+            if (reader.getEventId() != CommandReader.DEFAULT_EVENT_ID) {
+                otherEventCommands++;
+                commandCount++;
+                continue;
             }
-        } else if (line.matches(CANCEL_REGEX)) {
-            Matcher matcher = this.getMatcher(CANCEL_REGEX, line);
-            if (matcher.find()) {
-                int seatId = Integer.parseInt(matcher.group(1));
-                int userId = Integer.parseInt(matcher.group(2));
-                responseStrings.addAll(inputActionsHandler.cancel(seatId, userId));
+            CommandType commandType = reader.getCommandType();
+            int firstArgument = reader.getArgument(0);
+            int secondArgument = reader.getArgument(1);
+            int thirdArgument = reader.getArgument(2);
+            if (Objects.nonNull(recoveryManager)) {
+                recoveryManager.beforeCommand(commandType, firstArgument, secondArgument, thirdArgument);
             }
-        } else if (line.matches(EXIT_WAITLIST_REGEX)) {
-            Matcher matcher = this.getMatcher(EXIT_WAITLIST_REGEX, line);
-            if (matcher.find()) {
-                int userId = Integer.parseInt(matcher.group(1));
-                responseStrings.add(inputActionsHandler.exitWaitlist(userId));
+            inputActionsHandler.execute(commandType, firstArgument, secondArgument, thirdArgument, responses);
+            commandCount++;
+            if (commandType == CommandType.QUIT) {
+                break;
             }
-        } else if (line.matches(UPDATE_PRIORITY_REGEX)) {
-            Matcher matcher = this.getMatcher(UPDATE_PRIORITY_REGEX, line);
-            if (matcher.find()) {
-                int userId = Integer.parseInt(matcher.group(1));
-                int userPriority = Integer.parseInt(matcher.group(2));
-                responseStrings.add(inputActionsHandler.updatePriority(userId, userPriority));
+            if (Objects.nonNull(recoveryManager)) {
+                recoveryManager.afterCommand(commandCount, responses);
             }
-        } else if (line.matches(ADD_SEATS_REGEX)) {
-            Matcher matcher = this.getMatcher(ADD_SEATS_REGEX, line);
-            if (matcher.find()) {
-                int seatCount = Integer.parseInt(matcher.group(1));
-                responseStrings.addAll(inputActionsHandler.addSeats(seatCount));
+        }
+        if (Objects.nonNull(recoveryManager)) {
+            recoveryManager.commit(commandCount, responses);
+        }
+        if (otherEventCommands > 0) {
+            logger.warn("Skipped " + otherEventCommands + " commands addressed to other events; process the file with event shards to execute them.");
+        }
+    }
+
+    // Parse, execute and write the commands on the three stages of a pipeline, with the same output as processing them inline.
+    private void processCommandsPipelined(CommandReader reader, ResponseSink responses) throws IOException, InterruptedException {
+        CommandPipeline commandPipeline = new CommandPipeline(inputActionsHandler);
+        commandPipeline.process(reader, responses);
+        if (commandPipeline.getOtherEventCommandCount() > 0) {
+            logger.warn("Skipped " + commandPipeline.getOtherEventCommandCount() + " commands addressed to other events; process the file with event shards to execute them.");
+        }
+    }
+
+    // Submit the commands to the engine as they are read, writing the responses in input order as they complete.
+    private void processEventCommands(CommandReader reader, ResponseSink responses, ShardedBookingEngine bookingEngine) throws IOException {
+        Deque<CompletableFuture<List<String>>> pendingResponses = new ArrayDeque<>();
+        boolean quit = false;
+        while (!quit && reader.nextCommand()) {
+            if (reader.getCommandType() == CommandType.QUIT) {
+                quit = true;
+                continue;
+            }
+            pendingResponses.add(bookingEngine.submit(reader.getEventId(), reader.getCommandType(), reader.getArgument(0),
+                    reader.getArgument(1), reader.getArgument(2)));
+            if (pendingResponses.size() >= MAX_PENDING_EVENT_COMMANDS) {
+                writeResponses(pendingResponses.poll().join(), responses);
             }
-        } else if (line.matches(PRINT_RESERVATIONS_REGEX)) {
-            responseStrings.addAll(inputActionsHandler.printReservations());
-        } else if (line.matches(RELEASE_SEATS_REGEX)) {
-            Matcher matcher = this.getMatcher(RELEASE_SEATS_REGEX, line);
-            if (matcher.find()) {
-                int userId1 = Integer.parseInt(matcher.group(1));
-                int userId2 = Integer.parseInt(matcher.group(2));
-                responseStrings.addAll(inputActionsHandler.releaseSeats(userId1, userId2));
+            while (!pendingResponses.isEmpty() && pendingResponses.peek().isDone()) {
+                writeResponses(pendingResponses.poll().join(), responses);
             }
         }
+        while (!pendingResponses.isEmpty()) {
+            writeResponses(pendingResponses.poll().join(), responses);
+        }
+        if (quit) {
+            inputActionsHandler.quit(responses);
+        }
+    }
 
-        return responseStrings;
+    // Write the responses of a command executed by the engine.
+    private static void writeResponses(List<String> commandResponses, ResponseSink responses) {
+        for (String response : commandResponses) {
+            responses.append(response).endResponse();
+        }
     }
 
-    // Returns a Matcher object for the given regex and text.
-    private Matcher getMatcher(String regex, String text) {
-        Pattern pattern = Pattern.compile(regex);
-        return pattern.matcher(text);
+    // Writes the command metrics of the run next to the input file if metrics files are enabled, without failing the run
+    // if they cannot be written.
+    private void writeMetrics(CommandMetrics metrics, String fileNamePath) {
+        if (!METRICS_FILE_ENABLED) {
+            return;
+        }
+        String metricsFileNamePath = this.getOutputFilePath(fileNamePath, METRICS_FILE_SUFFIX);
+        try {
+            metrics.write(Paths.get(metricsFileNamePath));
+            logger.info("Command metrics written into file: " + metricsFileNamePath);
+        } catch (IOException exception) {
+            logger.error("Error writing the command metrics: " + exception);
+        }
+    }
+
+    // Path of a file produced for the input file, i.e. `<input_file><suffix>.<extension>` in the input file's directory.
+    // Only the file name is split at its first `.`, so dots in the directories of the path are kept as they are.
+    private String getOutputFilePath(String fileNamePath, String suffix) {
+        Path filePath = Paths.get(fileNamePath);
+        String[] fileDetails = filePath.getFileName().toString().split("\\.", 2);
+        String outputFileName = fileDetails[0] + suffix + "." + ((fileDetails.length < 2) ? "txt" : fileDetails[1]);
+        Path parentPath = filePath.getParent();
+        return (Objects.isNull(parentPath) ? Paths.get(outputFileName) : parentPath.resolve(outputFileName)).toString();
     }
 }
@@ -0,0 +1,167 @@
+/**
+ * Index of the runs of contiguous free seats of a {@link SeatPool}, used to find the lowest block of seats for a group.
+ * It is a segment tree over the words of the seat bitset in which every node keeps the length of the free run at the
+ * start of its range, the free run at the end of its range and the longest free run inside it, so the lowest run of a
+ * given length is found in O(log n) however fragmented the free seats are. Changed words are only queued as the pool
+ * changes and the tree is brought up to date on the next search, so seat pools that are never searched for blocks pay
+ * nothing for it.
+ */
+public class FreeSeatRunTree {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_BITS = 64;
+    private static final int MIN_PENDING_CAPACITY = 64;
+
+    // Number of leaves, a power of two; the node i has the children 2i and 2i + 1 and the leaf of word w is leafCount + w.
+    private final int leafCount;
+    private final int[] prefixRuns;
+    private final int[] suffixRuns;
+    private final int[] longestRuns;
+
+    // Words changed since the tree was last brought up to date, beyond which the whole tree is rebuilt instead.
+    private final int[] pendingWords;
+
+    private int pendingCount;
+
+    private boolean rebuildPending;
+
+    /**
+     * Builds the tree from the seat bitset, in which a set bit marks a free seat.
+     *
+     * @param seatBits words of the seat bitset.
+     */
+    public FreeSeatRunTree(long[] seatBits) {
+        int leaves = 1;
+        while (leaves < seatBits.length) {
+            leaves <<= 1;
+        }
+        this.leafCount = leaves;
+        this.prefixRuns = new int[2 * leaves];
+        this.suffixRuns = new int[2 * leaves];
+        this.longestRuns = new int[2 * leaves];
+        this.pendingWords = new int[Math.max(MIN_PENDING_CAPACITY, leaves / 4)];
+        this.rebuild(seatBits);
+    }
+
+    /**
+     * Records that a word of the seat bitset has changed.
+     *
+     * @param wordIndex index of the word in the seat bitset.
+     */
+    public void markChanged(int wordIndex) {
+        if (this.pendingCount < this.pendingWords.length) {
+            this.pendingWords[this.pendingCount++] = wordIndex;
+        } else {
+            this.rebuildPending = true;
+        }
+    }
+
+    /**
+     * Records that a range of words of the seat bitset has changed.
+     *
+     * @param fromWordIndex index of the first changed word (inclusive).
+     * @param toWordIndex   index of the last changed word (inclusive).
+     */
+    public void markChanged(int fromWordIndex, int toWordIndex) {
+        if (toWordIndex - fromWordIndex >= this.pendingWords.length - this.pendingCount) {
+            this.rebuildPending = true;
+            return;
+        }
+        for (int wordIndex = fromWordIndex; wordIndex <= toWordIndex; wordIndex++) {
+            this.pendingWords[this.pendingCount++] = wordIndex;
+        }
+    }
+
+    /**
+     * Finds the lowest run of contiguous free seats of the given length.
+     *
+     * @param seatBits  words of the seat bitset, with every change recorded through {@link #markChanged(int)}.
+     * @param runLength number of contiguous free seats needed, at least 1.
+     * @return the first seat number of the lowest run, or -1 if no run is long enough.
+     */
+    public int findRun(long[] seatBits, int runLength) {
+        this.update(seatBits);
+        if (this.longestRuns[1] < runLength) {
+            return -1;
+        }
+
+        int node = 1;
+        long nodeStart = 0;
+        long nodeLength = (long) this.leafCount << WORD_SHIFT;
+        while (node < this.leafCount) {
+            int leftChild = 2 * node;
+            nodeLength >>>= 1;
+            if (this.longestRuns[leftChild] >= runLength) {
+                node = leftChild;
+            } else if (this.suffixRuns[leftChild] + this.prefixRuns[leftChild + 1] >= runLength) {
+                return (int) (nodeStart + nodeLength - this.suffixRuns[leftChild]);
+            } else {
+                node = leftChild + 1;
+                nodeStart += nodeLength;
+            }
+        }
+
+        // The run lies within the word: keep the bits which start runLength free seats in a row.
+        long runStarts = seatBits[node - this.leafCount];
+        for (int shift = 1; shift < runLength; shift++) {
+            runStarts &= runStarts >>> 1;
+        }
+        return (int) (nodeStart + Long.numberOfTrailingZeros(runStarts));
+    }
+
+    // Brings the changed leaves and their ancestors up to date, or rebuilds the whole tree if too many words have changed.
+    private void update(long[] seatBits) {
+        if (this.rebuildPending) {
+            this.rebuild(seatBits);
+            return;
+        }
+        for (int index = 0; index < this.pendingCount; index++) {
+            int node = this.leafCount + this.pendingWords[index];
+            this.setLeaf(node, seatBits[this.pendingWords[index]]);
+            for (node >>>= 1; node > 0; node >>>= 1) {
+                this.combine(node);
+            }
+        }
+        this.pendingCount = 0;
+    }
+
+    // Recomputes every node from the seat bitset.
+    private void rebuild(long[] seatBits) {
+        for (int wordIndex = 0; wordIndex < this.leafCount; wordIndex++) {
+            this.setLeaf(this.leafCount + wordIndex, (wordIndex < seatBits.length) ? seatBits[wordIndex] : 0L);
+        }
+        for (int node = this.leafCount - 1; node > 0; node--) {
+            this.combine(node);
+        }
+        this.pendingCount = 0;
+        this.rebuildPending = false;
+    }
+
+    // Sets the runs of a leaf from its word, in which bit 0 is the lowest seat number.
+    private void setLeaf(int node, long word) {
+        this.prefixRuns[node] = Long.numberOfTrailingZeros(~word);
+        this.suffixRuns[node] = Long.numberOfLeadingZeros(~word);
+
+        int longestRun = 0;
+        while (word != 0) {
+            word >>>= Long.numberOfTrailingZeros(word);
+            int run = Long.numberOfTrailingZeros(~word);
+            longestRun = Math.max(longestRun, run);
+            word = (run == WORD_BITS) ? 0L : (word >>> run);
+        }
+        this.longestRuns[node] = longestRun;
+    }
+
+    // Sets the runs of an inner node from the runs of its children.
+    private void combine(int node) {
+        int leftChild = 2 * node;
+        int rightChild = leftChild + 1;
+        int childLength = WORD_BITS << (Integer.numberOfLeadingZeros(node) - Integer.numberOfLeadingZeros(this.leafCount) - 1);
+
+        this.prefixRuns[node] = (this.prefixRuns[leftChild] == childLength)
+                ? childLength + this.prefixRuns[rightChild] : this.prefixRuns[leftChild];
+        this.suffixRuns[node] = (this.suffixRuns[rightChild] == childLength)
+                ? childLength + this.suffixRuns[leftChild] : this.suffixRuns[rightChild];
+        this.longestRuns[node] = Math.max(Math.max(this.longestRuns[leftChild], this.longestRuns[rightChild]),
+                this.suffixRuns[leftChild] + this.prefixRuns[rightChild]);
+    }
+}
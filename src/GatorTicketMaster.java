@@ -1,4 +1,16 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Objects;
+
 public class GatorTicketMaster {
+    private static final String CONVERT_OPTION = "--convert";
+    private static final String RECOVERY_OPTION = "--recovery";
+    private static final String EVENTS_OPTION = "--events";
+    private static final String SERVER_OPTION = "--server";
+    private static final String BATCH_OPTION = "--batch";
+
     public static void main(String[] args) {
         FileIOProcessor fileIOProcessor = new FileIOProcessor();
 
@@ -7,7 +19,89 @@ public class GatorTicketMaster {
             return;
         }
 
+        if (args[0].equals(CONVERT_OPTION)) {
+            if (args.length < 3) {
+                System.out.println("Error: Please provide the input file and the binary file to convert it into.");
+                return;
+            }
+            fileIOProcessor.convertFile(args[1], args[2]);
+            return;
+        }
+
+        if (args[0].equals(RECOVERY_OPTION)) {
+            if (args.length < 3) {
+                System.out.println("Error: Please provide the recovery directory and the input file.");
+                return;
+            }
+            fileIOProcessor.processFile(args[2], args[1]);
+            return;
+        }
+
+        if (args[0].equals(EVENTS_OPTION)) {
+            if (args.length < 3) {
+                System.out.println("Error: Please provide the number of event shards and the input file.");
+                return;
+            }
+            try {
+                fileIOProcessor.processEventsFile(args[2], Integer.parseInt(args[1]));
+            } catch (NumberFormatException exception) {
+                System.out.println("Error: The number of event shards must be an integer.");
+            }
+            return;
+        }
+
+        if (args[0].equals(BATCH_OPTION)) {
+            if (args.length < 3) {
+                System.out.println("Error: Please provide the number of threads and the input files or directories.");
+                return;
+            }
+            int threadCount;
+            try {
+                threadCount = Integer.parseInt(args[1]);
+            } catch (NumberFormatException exception) {
+                threadCount = 0;
+            }
+            if (threadCount < 1) {
+                System.out.println("Error: The number of threads must be a positive integer.");
+                return;
+            }
+            new BatchFileProcessor(threadCount).processFiles(Arrays.asList(args).subList(2, args.length));
+            return;
+        }
+
+        if (args[0].equals(SERVER_OPTION)) {
+            if (args.length < 3) {
+                System.out.println("Error: Please provide the port and the number of event shards.");
+                return;
+            }
+            try {
+                serve(Integer.parseInt(args[1]), Integer.parseInt(args[2]), (args.length < 4) ? null : args[3]);
+            } catch (NumberFormatException exception) {
+                System.out.println("Error: The port and the number of event shards must be integers.");
+            }
+            return;
+        }
+
         String filePath = args[0];
         fileIOProcessor.processFile(filePath);
     }
+
+    // Serves commands over TCP until the JVM is stopped, letting the commands already received finish on shutdown. The
+    // server has no authentication, so it listens on the loopback interface unless another address is given.
+    private static void serve(int port, int shardCount, String bindAddress) {
+        try {
+            InetAddress address = Objects.isNull(bindAddress) ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bindAddress);
+            BookingServer bookingServer = new BookingServer(new InetSocketAddress(address, port), shardCount);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    bookingServer.close();
+                } catch (IOException exception) {
+                    System.out.println("Error stopping the server: " + exception.getMessage());
+                }
+            }, "booking-server-shutdown"));
+            bookingServer.serve();
+        } catch (IOException exception) {
+            System.out.println("Error: " + exception.getMessage());
+        }
+    }
 }
@@ -0,0 +1,173 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Binary Min Heap that keeps track of the slot of every element by an integer key (e.g. userId).
+ * The position map is kept in sync on every placement within the heap, so lookups, removals and
+ * priority updates by key run in O(log n) instead of a linear scan over the heap array. The map is a primitive
+ * {@link IntIntHashMap}, so sifting an element boxes nothing. Keys are unique: inserting an element whose key is
+ * already present is rejected, leaving the heap unchanged, so every element stays reachable by its key.
+ */
+public class IndexedBinaryMinHeap<K extends Comparable<K>> extends BinaryMinHeap<K> {
+    private final ToIntFunction<K> keyMapper;
+
+    private static final int NO_POSITION = -1;
+
+    private final IntIntHashMap positionMap;
+
+    public IndexedBinaryMinHeap(ToIntFunction<K> keyMapper) {
+        this(Integer.MAX_VALUE, keyMapper);
+    }
+
+    public IndexedBinaryMinHeap(int maxSize, ToIntFunction<K> keyMapper) {
+        super(maxSize);
+        this.keyMapper = keyMapper;
+        this.positionMap = new IntIntHashMap(NO_POSITION);
+    }
+
+    /**
+     * @param key of the element to search for.
+     * @return `true` if an element with the key is present in the heap, `false` otherwise.
+     */
+    public boolean containsKey(int key) {
+        return this.positionMap.containsKey(key);
+    }
+
+    /**
+     * Retrieves the element associated with the specified key.
+     *
+     * @param key of the element to search for.
+     * @return the element if found, else null.
+     */
+    public K getElement(int key) {
+        int index = this.positionMap.get(key);
+        return (index == NO_POSITION) ? null : this.elementAt(index);
+    }
+
+    /**
+     * Removes the element associated with the specified key and heapify to maintain the Min-Heap property.
+     *
+     * @param key of the element to remove.
+     * @return the removed element if found, else null.
+     */
+    public K removeKey(int key) {
+        int index = this.positionMap.get(key);
+        return (index == NO_POSITION) ? null : this.removeAt(index);
+    }
+
+    /**
+     * Removes all the elements whose keys fall in the specified range. Narrow ranges are removed key by key through the
+     * position map, while ranges wider than the heap are removed in a single pass over the heap array.
+     *
+     * @param fromKey first key of the range (inclusive).
+     * @param toKey   last key of the range (inclusive).
+     * @return number of elements removed.
+     */
+    public int removeKeyRange(int fromKey, int toKey) {
+        if (fromKey > toKey || this.isEmpty()) {
+            return 0;
+        }
+        if ((long) toKey - fromKey >= this.size()) {
+            return this.removeIf(element -> {
+                int key = this.keyMapper.applyAsInt(element);
+                return key >= fromKey && key <= toKey;
+            });
+        }
+
+        int removedCount = 0;
+        for (long key = fromKey; key <= toKey; key++) {
+            if (Objects.nonNull(this.removeKey((int) key))) {
+                removedCount++;
+            }
+        }
+        return removedCount;
+    }
+
+    /**
+     * Replaces the element having the same key as the specified element, moving it up or down as per its new priority.
+     *
+     * @param element to assign in place of the existing element with the same key.
+     * @return `true` if the element was updated, `false` if no element with the key is present.
+     */
+    public boolean updateElement(K element) {
+        int index = this.positionMap.get(this.keyMapper.applyAsInt(element));
+        if (index == NO_POSITION) {
+            return false;
+        }
+        this.updateElement(index, element);
+        return true;
+    }
+
+    /**
+     * Inserts the element unless an element with the same key is already present.
+     *
+     * @param value to be inserted into the heap.
+     * @return `true` if the element was inserted, `false` if its key is already present or the heap is full.
+     */
+    @Override
+    public boolean insert(K value) {
+        if (this.containsKey(this.keyMapper.applyAsInt(value))) {
+            return false;
+        }
+        return super.insert(value);
+    }
+
+    /**
+     * Inserts the elements in one bulk operation, skipping those whose key is already present in the heap or appears
+     * earlier among the values.
+     *
+     * @param values to be inserted into the heap.
+     * @return number of values inserted.
+     */
+    @Override
+    public int insertAll(Collection<? extends K> values) {
+        List<K> newValues = new ArrayList<>(values.size());
+        IntIntHashMap newKeys = new IntIntHashMap(NO_POSITION);
+        for (K value : values) {
+            int key = this.keyMapper.applyAsInt(value);
+            if (!this.containsKey(key) && newKeys.put(key, 0) == NO_POSITION) {
+                newValues.add(value);
+            }
+        }
+        return super.insertAll(newValues);
+    }
+
+    @Override
+    public K removeElement(K element) {
+        return this.removeKey(this.keyMapper.applyAsInt(element));
+    }
+
+    @Override
+    public Map.Entry<Integer, K> getElementAndIndex(K element) {
+        int index = this.positionMap.get(this.keyMapper.applyAsInt(element));
+        return (index == NO_POSITION) ? null : Map.entry(index, this.elementAt(index));
+    }
+
+    @Override
+    public int removeIf(Predicate<? super K> filter) {
+        return super.removeIf(element -> {
+            if (filter.test(element)) {
+                this.positionMap.remove(this.keyMapper.applyAsInt(element));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    protected void setElement(int index, K element) {
+        super.setElement(index, element);
+        this.positionMap.put(this.keyMapper.applyAsInt(element), index);
+    }
+
+    @Override
+    protected K removeAt(int index) {
+        this.positionMap.remove(this.keyMapper.applyAsInt(this.elementAt(index)));
+        return super.removeAt(index);
+    }
+}
@@ -1,118 +1,368 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class InputActionsHandler {
-    private static final Integer WAITLIST_SIZE = 100000;
+    private static final int NO_RESERVATION = -1;
     private static final String INVALID_INPUT = "Invalid input. Please provide a valid number of seats.";
+    // Highest seat number of handlers created without an explicit bound, so that a single command cannot make the seat
+    // pool allocate more memory than the JVM has. Configured with the `gator.max.seats` system property.
+    private static final int DEFAULT_MAX_SEATS = Integer.getInteger("gator.max.seats", 10_000_000);
+    // Whether handlers created without an explicit storage choice keep reservations in array-backed trees. Configured
+    // with the `gator.tree.storage` system property, `array` or `node` (the default).
+    private static final boolean DEFAULT_ARRAY_BACKED_TREES = "array".equalsIgnoreCase(System.getProperty("gator.tree.storage"));
+    // Highest number of users a single `ReserveBatch` can take, so that one command cannot allocate a waitlist entry per
+    // user beyond the memory the JVM has. Configured with the `gator.max.batch.users` system property.
+    private static final int MAX_BATCH_USERS = Integer.getInteger("gator.max.batch.users", 1_000_000);
 
-    private final BinaryMinHeap<Integer> availableSeatsList;
-    private final BinaryMinHeap<User> usersWaitList;
-    private final RBTreeMap userReservationMap;
+    private final SeatPool availableSeatsList;
+    private final IndexedBinaryMinHeap<User> usersWaitList;
+    private final IntTreeMap userReservationMap;
+    private final IntTreeMap seatReservationMap;
+    private final SeatOwnerIndex seatOwnerIndex;
+    private final CommandMetrics commandMetrics;
     private final Logger logger;
+    private final int maxSeats;
 
     private int availableSeats;
 
+    // Arrival order of waitlisted users; unlike System.nanoTime it is deterministic, so it survives snapshots and journal replay.
+    private long waitlistSequence;
+
+    /**
+     * Creates a handler whose seat numbers are bounded by the `gator.max.seats` system property, ten million by default,
+     * and whose waitlist is unbounded, recording its commands into metrics of its own.
+     */
     public InputActionsHandler() {
+        this(new CommandMetrics());
+    }
+
+    /**
+     * Creates a handler as {@link #InputActionsHandler()} does, recording its commands into the given metrics.
+     *
+     * @param commandMetrics metrics the executed commands are recorded into, shared by the handlers executed by the same
+     *                       thread so that many events do not each hold latency histograms
+     */
+    public InputActionsHandler(CommandMetrics commandMetrics) {
+        this(DEFAULT_MAX_SEATS, Integer.MAX_VALUE, DEFAULT_ARRAY_BACKED_TREES, commandMetrics);
+    }
+
+    /**
+     * Creates a handler whose seat pool and waitlist grow on demand up to the given bounds, storing the reservations as
+     * selected by the `gator.tree.storage` system property.
+     *
+     * @param maxSeats        highest seat number that can be made available
+     * @param maxWaitlistSize maximum number of users in the waitlist
+     */
+    public InputActionsHandler(int maxSeats, int maxWaitlistSize) {
+        this(maxSeats, maxWaitlistSize, DEFAULT_ARRAY_BACKED_TREES);
+    }
+
+    /**
+     * Creates a handler whose seat pool and waitlist grow on demand up to the given bounds.
+     *
+     * @param maxSeats         highest seat number that can be made available
+     * @param maxWaitlistSize  maximum number of users in the waitlist
+     * @param arrayBackedTrees `true` to store reservations in {@link ArrayRBTreeMap}, which uses several times less memory
+     *                         per reservation for very large events, `false` to use the node-based {@link RBTreeMap}
+     */
+    public InputActionsHandler(int maxSeats, int maxWaitlistSize, boolean arrayBackedTrees) {
+        this(maxSeats, maxWaitlistSize, arrayBackedTrees, new CommandMetrics());
+    }
+
+    /**
+     * Creates a handler whose seat pool and waitlist grow on demand up to the given bounds, recording its commands into
+     * the given metrics.
+     *
+     * @param maxSeats         highest seat number that can be made available
+     * @param maxWaitlistSize  maximum number of users in the waitlist
+     * @param arrayBackedTrees `true` to store reservations in {@link ArrayRBTreeMap}, `false` to use {@link RBTreeMap}
+     * @param commandMetrics   metrics the executed commands are recorded into, only ever recorded into by the thread
+     *                         executing the commands of this handler
+     */
+    public InputActionsHandler(int maxSeats, int maxWaitlistSize, boolean arrayBackedTrees, CommandMetrics commandMetrics) {
         this.availableSeats = 0;
-        this.usersWaitList = new BinaryMinHeap<>(WAITLIST_SIZE);
-        this.availableSeatsList = new BinaryMinHeap<>(WAITLIST_SIZE);
-        this.userReservationMap = new RBTreeMap();
+        this.maxSeats = maxSeats;
+        this.usersWaitList = new IndexedBinaryMinHeap<>(maxWaitlistSize, User::getUserId);
+        this.availableSeatsList = new SeatPool(maxSeats);
+        this.userReservationMap = arrayBackedTrees ? new ArrayRBTreeMap() : new RBTreeMap();
+        this.seatReservationMap = arrayBackedTrees ? new ArrayRBTreeMap() : new RBTreeMap();
+        this.seatOwnerIndex = new SeatOwnerIndex(NO_RESERVATION);
+        this.commandMetrics = commandMetrics;
         logger = new Logger();
     }
 
     /**
-     * Initialize the system with the specified number of seats.
+     * Execute a command, dispatching it to the matching action, and record its latency in the handler's metrics.
+     *
+     * @param commandType    type of the command
+     * @param firstArgument  first argument of the command, ignored if the command takes none
+     * @param secondArgument second argument of the command, ignored if the command takes fewer than two
+     * @param thirdArgument  third argument of the command, ignored if the command takes fewer than three
+     * @param responses      sink the responses are written to
+     */
+    public void execute(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument, ResponseSink responses) {
+        long startTime = System.nanoTime();
+        this.dispatch(commandType, firstArgument, secondArgument, thirdArgument, responses);
+        this.commandMetrics.recordCommand(commandType, System.nanoTime() - startTime);
+        this.commandMetrics.recordWaitlistSize(this.usersWaitList.size());
+    }
+
+    /**
+     * Add the current state of the handler's seats, waitlist and reservation trees to the metrics. The commands it
+     * executed are in the metrics it was created with, which are added separately as other handlers may share them.
+     *
+     * @param metrics metrics to add to
+     */
+    public void collectMetrics(CommandMetrics metrics) {
+        metrics.addEventState(this.usersWaitList.size(), this.seatReservationMap.size(), this.availableSeatsList.size(),
+                Math.max(this.userReservationMap.height(), this.seatReservationMap.height()),
+                this.userReservationMap.getRotationCount() + this.seatReservationMap.getRotationCount());
+    }
+
+    // Dispatches the command to the matching action.
+    private void dispatch(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument, ResponseSink responses) {
+        switch (commandType) {
+            case INITIALIZE:
+                this.initialize(firstArgument, responses);
+                break;
+            case AVAILABLE:
+                this.available(responses);
+                break;
+            case RESERVE:
+                this.reserve(firstArgument, secondArgument, responses);
+                break;
+            case CANCEL:
+                this.cancel(firstArgument, secondArgument, responses);
+                break;
+            case EXIT_WAITLIST:
+                this.exitWaitlist(firstArgument, responses);
+                break;
+            case UPDATE_PRIORITY:
+                this.updatePriority(firstArgument, secondArgument, responses);
+                break;
+            case ADD_SEATS:
+                this.addSeats(firstArgument, responses);
+                break;
+            case PRINT_RESERVATIONS:
+                this.printReservations(responses);
+                break;
+            case SEAT_STATUS:
+                this.seatStatus(firstArgument, responses);
+                break;
+            case RELEASE_SEATS:
+                this.releaseSeats(firstArgument, secondArgument, responses);
+                break;
+            case QUIT:
+                this.quit(responses);
+                break;
+            case RESERVE_BATCH:
+                this.reserveBatch(firstArgument, secondArgument, thirdArgument, responses);
+                break;
+            case RESERVE_BLOCK:
+                this.reserveBlock(firstArgument, secondArgument, responses);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Initialize the system with the specified number of seats. A seat count above the highest seat number of the
+     * handler is rejected as invalid input.
      *
      * @param seatCount count of seats to initialize
-     * @return response
+     * @param responses sink the response is written to
      */
-    public String initialize(int seatCount) {
+    public void initialize(int seatCount, ResponseSink responses) {
         try {
-            if (seatCount < 0 || seatCount > WAITLIST_SIZE) {
-                return INVALID_INPUT;
-            }
-            for (int seatNumber = 1; seatNumber <= seatCount; seatNumber++) {
-                this.availableSeatsList.insert(seatNumber);
+            if (seatCount < 0 || seatCount > this.maxSeats) {
+                responses.append(INVALID_INPUT).endResponse();
+                return;
             }
-            this.availableSeats += seatCount;
-            return String.format("%d Seats are made available for reservation", seatCount);
+            this.availableSeats += this.availableSeatsList.insertRange(1, seatCount);
+            responses.append(seatCount).append(" Seats are made available for reservation").endResponse();
         } catch (RuntimeException exception) {
-            logger.error("Exception when initializing: " + exception);
-            return INVALID_INPUT;
+            logger.error(() -> "Exception when initializing: " + exception);
+            responses.append(INVALID_INPUT).endResponse();
         }
     }
 
     /**
      * Get the number of available seats and the length of the waitlist.
      *
-     * @return response
+     * @param responses sink the response is written to
      */
-    public String available() {
-        return String.format("Total Seats Available : %d, Waitlist : %d", this.availableSeatsList.size(), this.usersWaitList.size());
+    public void available(ResponseSink responses) {
+        responses.append("Total Seats Available : ").append(this.availableSeatsList.size())
+                .append(", Waitlist : ").append(this.usersWaitList.size()).endResponse();
     }
 
     /**
-     * Reserve a seat for a user or add them to the waitlist.
+     * Reserve a seat for a user or add them to the waitlist. A user already in the waitlist keeps their place and
+     * priority and is not added a second time.
      *
      * @param userId       ID of the user.
      * @param userPriority Priority associated with the `userId`
-     * @return response
+     * @param responses    sink the response is written to
      */
-    public String reserve(Integer userId, Integer userPriority) {
+    public void reserve(int userId, int userPriority, ResponseSink responses) {
         if (this.availableSeatsList.isEmpty()) {
-            this.usersWaitList.insert(new User(userId, userPriority, System.nanoTime()));
-            return String.format("User %d is added to the waiting list", userId);
+            if (this.usersWaitList.containsKey(userId)) {
+                writeAlreadyWaitlisted(responses, userId);
+                return;
+            }
+            if (!this.usersWaitList.insert(new User(userId, userPriority, this.waitlistSequence++))) {
+                responses.append("User ").append(userId).append(" could not be added to the waiting list").endResponse();
+                return;
+            }
+            responses.append("User ").append(userId).append(" is added to the waiting list").endResponse();
+            return;
         }
         int seatId = this.availableSeatsList.extractMin();
-        this.userReservationMap.put(userId, seatId);
-        return String.format("User %d reserved seat %d", userId, seatId);
+        this.addReservation(userId, seatId);
+        writeReserved(responses, userId, seatId);
+    }
+
+    /**
+     * Reserve seats for a group of users with consecutive IDs, with the same responses as a `Reserve` per user in order.
+     * The lowest free seats are taken from the seat pool in one pass, the reservations are inserted into the trees in
+     * ascending order from the previous insertion point, and the users left without a seat join the waitlist in one bulk
+     * heap operation, except those already in the waitlist. A group larger than the `gator.max.batch.users` system
+     * property, one million by default, is rejected as an invalid range before anything is allocated.
+     *
+     * @param firstUserId  ID of the first user of the group.
+     * @param userCount    number of users in the group.
+     * @param userPriority Priority associated with every user of the group
+     * @param responses    sink the responses are written to
+     */
+    public void reserveBatch(int firstUserId, int userCount, int userPriority, ResponseSink responses) {
+        if (userCount <= 0 || userCount > MAX_BATCH_USERS || (long) firstUserId + userCount - 1 > Integer.MAX_VALUE) {
+            responses.append("Invalid input. Please provide a valid range of users.").endResponse();
+            return;
+        }
+
+        int[] seatIds = new int[Math.min(userCount, this.availableSeatsList.size())];
+        int seatedCount = this.availableSeatsList.extractMins(seatIds, seatIds.length);
+        int[] userIds = new int[seatedCount];
+        for (int index = 0; index < seatedCount; index++) {
+            userIds[index] = firstUserId + index;
+            this.seatOwnerIndex.occupy(seatIds[index], userIds[index]);
+        }
+        this.userReservationMap.putAscending(userIds, seatIds, seatedCount);
+        this.seatReservationMap.putAscending(seatIds, userIds, seatedCount);
+        for (int index = 0; index < seatedCount; index++) {
+            writeReserved(responses, userIds[index], seatIds[index]);
+        }
+
+        int waitlistedCount = userCount - seatedCount;
+        if (waitlistedCount == 0) {
+            return;
+        }
+        List<User> waitlistedUsers = new ArrayList<>(waitlistedCount);
+        for (int index = seatedCount; index < userCount; index++) {
+            int userId = firstUserId + index;
+            if (!this.usersWaitList.containsKey(userId)) {
+                waitlistedUsers.add(new User(userId, userPriority, this.waitlistSequence++));
+            }
+        }
+        // The heap inserts the new users in order until it is full, so the first `insertedCount` of them were added.
+        int insertedCount = this.usersWaitList.insertAll(waitlistedUsers);
+        int newUserIndex = 0;
+        for (int index = seatedCount; index < userCount; index++) {
+            int userId = firstUserId + index;
+            if (newUserIndex == waitlistedUsers.size() || waitlistedUsers.get(newUserIndex).getUserId() != userId) {
+                writeAlreadyWaitlisted(responses, userId);
+            } else if (newUserIndex++ < insertedCount) {
+                responses.append("User ").append(userId).append(" is added to the waiting list").endResponse();
+            } else {
+                responses.append("User ").append(userId).append(" could not be added to the waiting list").endResponse();
+            }
+        }
+    }
+
+    /**
+     * Reserve a block of contiguous seats for a group of users with consecutive IDs, seating them in order from the lowest
+     * block of free seats large enough for the whole group. Unlike `ReserveBatch`, the group is not split and does not
+     * join the waitlist if no such block is free.
+     *
+     * @param firstUserId ID of the first user of the group.
+     * @param userCount   number of users in the group, and so of seats in the block.
+     * @param responses   sink the responses are written to
+     */
+    public void reserveBlock(int firstUserId, int userCount, ResponseSink responses) {
+        if (userCount <= 0 || (long) firstUserId + userCount - 1 > Integer.MAX_VALUE) {
+            responses.append("Invalid input. Please provide a valid range of users.").endResponse();
+            return;
+        }
+
+        int firstSeatId = this.availableSeatsList.findFreeBlock(userCount);
+        if (firstSeatId < 0) {
+            responses.append("No block of ").append(userCount).append(" contiguous seats is available for User ")
+                    .append(firstUserId).endResponse();
+            return;
+        }
+        this.availableSeatsList.extractBlock(firstSeatId, firstSeatId + userCount - 1);
+
+        int[] userIds = new int[userCount];
+        int[] seatIds = new int[userCount];
+        for (int index = 0; index < userCount; index++) {
+            userIds[index] = firstUserId + index;
+            seatIds[index] = firstSeatId + index;
+            this.seatOwnerIndex.occupy(seatIds[index], userIds[index]);
+        }
+        this.userReservationMap.putAscending(userIds, seatIds, userCount);
+        this.seatReservationMap.putAscending(seatIds, userIds, userCount);
+        for (int index = 0; index < userCount; index++) {
+            writeReserved(responses, userIds[index], seatIds[index]);
+        }
     }
 
     /**
      * Cancel a user's reservation and reassign the seat to the waitlist.
      *
-     * @param seatId ID of the seat.
-     * @param userId ID of the user.
-     * @return response
+     * @param seatId    ID of the seat.
+     * @param userId    ID of the user.
+     * @param responses sink the responses are written to
      */
-    public List<String> cancel(Integer seatId, Integer userId) {
-        List<String> responses = new ArrayList<>();
-        Integer assignedSeatId = this.userReservationMap.get(userId);
+    public void cancel(int seatId, int userId, ResponseSink responses) {
+        int assignedSeatId = this.userReservationMap.get(userId, NO_RESERVATION);
 
-        if (Objects.isNull(assignedSeatId)) {
-            responses.add(String.format("User %d has no reservation to cancel", userId));
-        } else if (!Objects.equals(assignedSeatId, seatId)) {
-            responses.add(String.format("User %d has no reservation for seat %d to cancel", userId, seatId));
+        if (assignedSeatId == NO_RESERVATION) {
+            responses.append("User ").append(userId).append(" has no reservation to cancel").endResponse();
+        } else if (assignedSeatId != seatId) {
+            responses.append("User ").append(userId).append(" has no reservation for seat ").append(seatId)
+                    .append(" to cancel").endResponse();
         } else {
-            assignedSeatId = this.userReservationMap.remove(userId);
-            responses.add(String.format("User %d canceled their reservation", userId));
+            assignedSeatId = this.removeReservation(userId);
+            responses.append("User ").append(userId).append(" canceled their reservation").endResponse();
             if (!this.usersWaitList.isEmpty()) {
                 User user = this.usersWaitList.extractMin();
-                if (Objects.nonNull(this.userReservationMap.putIfAbsent(user.getUserId(), assignedSeatId))) {
-                    responses.add(String.format("User %d reserved seat %d", user.getUserId(), assignedSeatId));
+                if (!this.userReservationMap.containsKey(user.getUserId())) {
+                    this.addReservation(user.getUserId(), assignedSeatId);
+                    writeReserved(responses, user.getUserId(), assignedSeatId);
                 }
             } else {
                 this.availableSeatsList.insert(seatId);
             }
         }
-        return responses;
     }
 
     /**
      * Remove a user from the waitlist.
      *
-     * @param userId ID of the user.
-     * @return response
+     * @param userId    ID of the user.
+     * @param responses sink the response is written to
      */
-    public String exitWaitlist(int userId) {
-        if (Objects.nonNull(this.usersWaitList.removeElement(new User(userId)))) {
-            return String.format("User %d is removed from the waiting list", userId);
+    public void exitWaitlist(int userId, ResponseSink responses) {
+        if (Objects.nonNull(this.usersWaitList.removeKey(userId))) {
+            responses.append("User ").append(userId).append(" is removed from the waiting list").endResponse();
+            return;
         }
-        return String.format("User %d is not in waitlist", userId);
+        responses.append("User ").append(userId).append(" is not in waitlist").endResponse();
     }
 
     /**
@@ -120,104 +370,202 @@ public class InputActionsHandler {
      *
      * @param userId       ID of the user.
      * @param userPriority priority of the user
-     * @return response
+     * @param responses    sink the response is written to
      */
-    public String updatePriority(int userId, int userPriority) {
-        Map.Entry<Integer, User> userEntry = this.usersWaitList.getElementAndIndex(new User(userId));
-        if (Objects.isNull(userEntry)) {
-            return String.format("User %d priority is not updated", userId);
-
+    public void updatePriority(int userId, int userPriority, ResponseSink responses) {
+        User user = this.usersWaitList.getElement(userId);
+        if (Objects.isNull(user)) {
+            responses.append("User ").append(userId).append(" priority is not updated").endResponse();
+            return;
         }
-        this.usersWaitList.updateElement(userEntry.getKey(), new User(userId, userPriority, userEntry.getValue().getTimestamp()));
-        return String.format("User %d priority has been updated to %d", userId, userPriority);
+        this.usersWaitList.updateElement(new User(userId, userPriority, user.getTimestamp()));
+        responses.append("User ").append(userId).append(" priority has been updated to ").append(userPriority).endResponse();
     }
 
     /**
-     * Add more seats to the available seat list.
+     * Add more seats to the available seat list. Adding seats beyond the highest seat number of the handler is rejected
+     * as invalid input, and no seat is added.
      *
      * @param seatCount number of seats to be added
-     * @return response
+     * @param responses sink the responses are written to
      */
-    public List<String> addSeats(int seatCount) {
-        if (seatCount < 0 || seatCount > WAITLIST_SIZE) {
-            return List.of(INVALID_INPUT);
+    public void addSeats(int seatCount, ResponseSink responses) {
+        if (seatCount < 0 || (long) this.availableSeats + seatCount > this.maxSeats) {
+            responses.append(INVALID_INPUT).endResponse();
+            return;
         }
 
-        int seatsAdded = 0;
-        List<String> outputValues = new ArrayList<>();
-        for (int seatNumber = this.availableSeats + 1; seatNumber <= this.availableSeats + seatCount; seatNumber++) {
-            if (!this.availableSeatsList.insert(seatNumber)) {
-                break;
-            }
-            seatsAdded++;
-        }
+        int seatsAdded = this.availableSeatsList.insertRange(this.availableSeats + 1, this.availableSeats + seatCount);
         this.availableSeats += seatsAdded;
-        outputValues.add(String.format("Additional %d Seats are made available for reservation", seatsAdded));
+        responses.append("Additional ").append(seatsAdded).append(" Seats are made available for reservation").endResponse();
 
         while (!this.usersWaitList.isEmpty() && !this.availableSeatsList.isEmpty()) {
             int seatId = this.availableSeatsList.extractMin();
-            Integer userId = this.usersWaitList.extractMin().getUserId();
-            this.userReservationMap.put(userId, seatId);
-            outputValues.add(String.format("User %d reserved seat %d", userId, seatId));
+            int userId = this.usersWaitList.extractMin().getUserId();
+            this.addReservation(userId, seatId);
+            writeReserved(responses, userId, seatId);
         }
+    }
 
-        return outputValues;
+    /**
+     * Get the status of a seat in constant time: the user holding it, or whether it is free for reservation.
+     *
+     * @param seatId    ID of the seat.
+     * @param responses sink the response is written to
+     */
+    public void seatStatus(int seatId, ResponseSink responses) {
+        int userId = this.seatOwnerIndex.getOwner(seatId);
+        if (userId != NO_RESERVATION) {
+            responses.append("Seat ").append(seatId).append(" is reserved by User ").append(userId).endResponse();
+        } else if (this.availableSeatsList.contains(seatId)) {
+            responses.append("Seat ").append(seatId).append(" is available").endResponse();
+        } else {
+            responses.append("Seat ").append(seatId).append(" does not exist").endResponse();
+        }
     }
 
     /**
      * Print all reserved seats and the users they are assigned to
      *
-     * @return response
+     * @param responses sink the responses are written to
      */
-    public List<String> printReservations() {
-        Set<Map.Entry<Integer, Integer>> reservationDetailsSet = this.userReservationMap.entrySet();
-        return reservationDetailsSet.stream()
-                .sorted(Map.Entry.comparingByValue())
-                .map(setEntry -> String.format("Seat %d, User %d", setEntry.getValue(), setEntry.getKey()))
-                .collect(Collectors.toList());
+    public void printReservations(ResponseSink responses) {
+        this.seatReservationMap.forEachEntry((seatId, userId) ->
+                responses.append("Seat ").append(seatId).append(", User ").append(userId).endResponse());
     }
 
     /**
      * Release seats for users in a specified user ID range and remove them from the waitlist
      *
-     * @param userId1 starting value of range
-     * @param userId2 ending value of range
-     * @return response
+     * @param userId1   starting value of range
+     * @param userId2   ending value of range
+     * @param responses sink the responses are written to
      */
-    public List<String> releaseSeats(Integer userId1, Integer userId2) {
-        List<String> responses = new ArrayList<>();
+    public void releaseSeats(int userId1, int userId2, ResponseSink responses) {
         if (userId1 > userId2 || userId2 <= 0) {
-            responses.add("Invalid input. Please provide a valid range of users.");
-        } else {
-            for (int userId = userId1; userId <= userId2; userId++) {
-                if (!userReservationMap.isEmpty()) {
-                    Integer seatId = this.userReservationMap.remove(userId);
-                    if (Objects.nonNull(seatId)) {
-                        this.availableSeatsList.insert(seatId);
-                    }
-                }
-                if (!usersWaitList.isEmpty()) {
-                    this.usersWaitList.removeElement(new User(userId));
-                }
-            }
-            if (this.usersWaitList.isEmpty()) {
-                responses.add(String.format("Reservations/waitlist of the users in the range [%d, %d] have been released", userId1, userId2));
-            } else {
-                responses.add(String.format("Reservations of the Users in the range [%d, %d] are released", userId1, userId2));
-                while (!this.usersWaitList.isEmpty() && !this.availableSeatsList.isEmpty()) {
-                    User user = this.usersWaitList.extractMin();
-                    Integer seatId = this.availableSeatsList.extractMin();
-                    if (Objects.nonNull(seatId)) {
-                        this.userReservationMap.put(user.getUserId(), seatId);
-                        responses.add(String.format("User %d reserved seat %d", user.getUserId(), seatId));
-                    }
-                }
-            }
+            responses.append("Invalid input. Please provide a valid range of users.").endResponse();
+            return;
+        }
+        this.userReservationMap.removeRange(userId1, userId2, (userId, seatId) -> {
+            this.seatReservationMap.removeKey(seatId, NO_RESERVATION);
+            this.seatOwnerIndex.release(seatId);
+            this.availableSeatsList.insert(seatId);
+        });
+        this.usersWaitList.removeKeyRange(userId1, userId2);
+        if (this.usersWaitList.isEmpty()) {
+            responses.append("Reservations/waitlist of the users in the range [").append(userId1).append(", ")
+                    .append(userId2).append("] have been released").endResponse();
+            return;
         }
-        return responses;
+        responses.append("Reservations of the Users in the range [").append(userId1).append(", ")
+                .append(userId2).append("] are released").endResponse();
+        while (!this.usersWaitList.isEmpty() && !this.availableSeatsList.isEmpty()) {
+            User user = this.usersWaitList.extractMin();
+            int seatId = this.availableSeatsList.extractMin();
+            this.addReservation(user.getUserId(), seatId);
+            writeReserved(responses, user.getUserId(), seatId);
+        }
+    }
+
+    public void quit(ResponseSink responses) {
+        responses.append("Program Terminated!!").endResponse();
     }
 
-    public String quit() {
-        return "Program Terminated!!";
+    /**
+     * Write the state of the event in a compact binary form: free seats as runs of consecutive seat numbers, waitlisted
+     * users with their priority and arrival order, and the reservations.
+     *
+     * @param output destination of the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeSnapshot(DataOutput output) throws IOException {
+        output.writeInt(this.availableSeats);
+        output.writeLong(this.waitlistSequence);
+
+        int seatId = this.availableSeatsList.nextFreeSeat(1);
+        while (seatId != -1) {
+            int runEnd = this.availableSeatsList.nextTakenSeat(seatId);
+            output.writeInt(seatId);
+            output.writeInt(runEnd - seatId);
+            seatId = this.availableSeatsList.nextFreeSeat(runEnd);
+        }
+        output.writeInt(0);
+
+        List<User> waitlistedUsers = new ArrayList<>(this.usersWaitList.size());
+        this.usersWaitList.forEach(waitlistedUsers::add);
+        output.writeInt(waitlistedUsers.size());
+        for (User user : waitlistedUsers) {
+            output.writeInt(user.getUserId());
+            output.writeInt(user.getUserPriority());
+            output.writeLong(user.getTimestamp());
+        }
+
+        int[] reservations = new int[this.userReservationMap.size() * 2];
+        int[] reservationIndex = {0};
+        this.userReservationMap.forEachEntry((userId, seat) -> {
+            reservations[reservationIndex[0]++] = userId;
+            reservations[reservationIndex[0]++] = seat;
+        });
+        output.writeInt(this.userReservationMap.size());
+        for (int reservation : reservations) {
+            output.writeInt(reservation);
+        }
+    }
+
+    /**
+     * Restore the state of the event written by {@link #writeSnapshot(DataOutput)}. The handler must not have executed
+     * any command yet.
+     *
+     * @param input source of the snapshot
+     * @throws IOException if the snapshot cannot be read
+     */
+    public void readSnapshot(DataInput input) throws IOException {
+        this.availableSeats = input.readInt();
+        this.waitlistSequence = input.readLong();
+
+        int seatId;
+        while ((seatId = input.readInt()) != 0) {
+            int runLength = input.readInt();
+            this.availableSeatsList.insertRange(seatId, seatId + runLength - 1);
+        }
+
+        int waitlistSize = input.readInt();
+        List<User> waitlistedUsers = new ArrayList<>(waitlistSize);
+        for (int index = 0; index < waitlistSize; index++) {
+            waitlistedUsers.add(new User(input.readInt(), input.readInt(), input.readLong()));
+        }
+        this.usersWaitList.insertAll(waitlistedUsers);
+
+        int reservationCount = input.readInt();
+        for (int index = 0; index < reservationCount; index++) {
+            this.addReservation(input.readInt(), input.readInt());
+        }
+    }
+
+    // Writes the response for a seat reserved by a user.
+    private static void writeReserved(ResponseSink responses, int userId, int seatId) {
+        responses.append("User ").append(userId).append(" reserved seat ").append(seatId).endResponse();
+    }
+
+    // Writes the response for a user who is already in the waitlist.
+    private static void writeAlreadyWaitlisted(ResponseSink responses, int userId) {
+        responses.append("User ").append(userId).append(" is already in the waiting list").endResponse();
+    }
+
+    // Records the reservation in both the user index and the seat index.
+    private void addReservation(int userId, int seatId) {
+        this.userReservationMap.put(userId, seatId);
+        this.seatReservationMap.put(seatId, userId);
+        this.seatOwnerIndex.occupy(seatId, userId);
+    }
+
+    // Removes the reservation of the user from both indexes and returns the released seat, or NO_RESERVATION if there is none.
+    private int removeReservation(int userId) {
+        int seatId = this.userReservationMap.removeKey(userId, NO_RESERVATION);
+        if (seatId != NO_RESERVATION) {
+            this.seatReservationMap.removeKey(seatId, NO_RESERVATION);
+            this.seatOwnerIndex.release(seatId);
+        }
+        return seatId;
     }
 }
@@ -0,0 +1,14 @@
+/**
+ * Action on an entry of int key and int value, the primitive counterpart of {@code BiConsumer<Integer, Integer>}, so
+ * the traversals of an {@link IntTreeMap} pass their entries without boxing them.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+    /**
+     * Performs the action on an entry.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     */
+    void accept(int key, int value);
+}
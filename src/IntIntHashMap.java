@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * Hash map from int keys to int values, stored in two parallel primitive arrays with linear probing, so lookups and
+ * updates neither box the keys and values nor allocate an entry per mapping. One value is reserved to mark empty
+ * slots and is returned for absent keys; it cannot be stored. Removal shifts the following entries of the probe
+ * sequence back instead of leaving tombstones, so lookups stay short however many entries are removed.
+ */
+public class IntIntHashMap {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // Multiplier of Fibonacci hashing, spreading consecutive keys such as user IDs across the table.
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final int missingValue;
+
+    private int[] keys;
+    private int[] values;
+    private int indexShift;
+    private int size;
+
+    /**
+     * @param missingValue value returned for absent keys, which marks empty slots and so cannot be stored.
+     */
+    public IntIntHashMap(int missingValue) {
+        this.missingValue = missingValue;
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param key key to look up.
+     * @return value mapped to the key, or the missing value if the key is absent.
+     */
+    public int get(int key) {
+        int index = this.indexOf(key);
+        return (index < 0) ? this.missingValue : this.values[index];
+    }
+
+    /**
+     * @param key key to look up.
+     * @return `true` if the key is mapped to a value, `false` otherwise.
+     */
+    public boolean containsKey(int key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous value.
+     *
+     * @param key   key to map.
+     * @param value value to map the key to; must not be the missing value.
+     * @return previous value of the key, or the missing value if the key was absent.
+     */
+    public int put(int key, int value) {
+        if (value == this.missingValue) {
+            throw new IllegalArgumentException("The missing value cannot be stored: " + value);
+        }
+        int mask = this.keys.length - 1;
+        int index = this.slotOf(key);
+        while (this.values[index] != this.missingValue) {
+            if (this.keys[index] == key) {
+                int previousValue = this.values[index];
+                this.values[index] = value;
+                return previousValue;
+            }
+            index = (index + 1) & mask;
+        }
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.size++;
+        if (this.size > (this.keys.length >>> 1) && this.keys.length < MAX_CAPACITY) {
+            this.rehash(this.keys.length << 1);
+        }
+        return this.missingValue;
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param key key to remove.
+     * @return value the key was mapped to, or the missing value if the key was absent.
+     */
+    public int remove(int key) {
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return this.missingValue;
+        }
+        int removedValue = this.values[index];
+        this.size--;
+
+        // Move back every following entry of the probe sequence which may no longer be reachable past the emptied slot.
+        int mask = this.keys.length - 1;
+        int emptyIndex = index;
+        int nextIndex = (index + 1) & mask;
+        while (this.values[nextIndex] != this.missingValue) {
+            int homeIndex = this.slotOf(this.keys[nextIndex]);
+            if (((nextIndex - homeIndex) & mask) >= ((nextIndex - emptyIndex) & mask)) {
+                this.keys[emptyIndex] = this.keys[nextIndex];
+                this.values[emptyIndex] = this.values[nextIndex];
+                emptyIndex = nextIndex;
+            }
+            nextIndex = (nextIndex + 1) & mask;
+        }
+        this.values[emptyIndex] = this.missingValue;
+        return removedValue;
+    }
+
+    /**
+     * @return number of keys mapped.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Slot holding the key, or -1 if the key is absent.
+    private int indexOf(int key) {
+        int mask = this.keys.length - 1;
+        int index = this.slotOf(key);
+        while (this.values[index] != this.missingValue) {
+            if (this.keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // First slot of the probe sequence of the key.
+    private int slotOf(int key) {
+        return (key * HASH_MULTIPLIER) >>> this.indexShift;
+    }
+
+    // Replaces the table with an empty one of the given power-of-two capacity.
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(this.values, this.missingValue);
+        this.indexShift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    // Moves every entry into a table of the given capacity.
+    private void rehash(int capacity) {
+        int[] previousKeys = this.keys;
+        int[] previousValues = this.values;
+        this.allocate(capacity);
+        int mask = capacity - 1;
+        for (int previousIndex = 0; previousIndex < previousKeys.length; previousIndex++) {
+            if (previousValues[previousIndex] == this.missingValue) {
+                continue;
+            }
+            int index = this.slotOf(previousKeys[previousIndex]);
+            while (this.values[index] != this.missingValue) {
+                index = (index + 1) & mask;
+            }
+            this.keys[index] = previousKeys[previousIndex];
+            this.values[index] = previousValues[previousIndex];
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.Map;
+
+/**
+ * Sorted map of integer keys to integer values, with primitive entry points for the reservation hot path and
+ * range operations over the keys. Implemented by the node-based {@link RBTreeMap} and the array-backed {@link ArrayRBTreeMap}.
+ * A key put several times is kept once per put, as a user may hold several seats; lookups and removals then act on the
+ * earliest put entry of the key still present, in both implementations.
+ */
+public interface IntTreeMap extends Map<Integer, Integer> {
+    /**
+     * Primitive variant of {@link #containsKey(Object)} which avoids boxing the key.
+     *
+     * @param key to search for
+     * @return `true` if the key is present in the tree, `false` otherwise
+     */
+    boolean containsKey(int key);
+
+    /**
+     * Primitive variant of {@link #get(Object)} which avoids boxing the key and the value.
+     *
+     * @param key     to search for
+     * @param missing value to return if the key is not present
+     * @return the value mapped to the key, or `missing` if the key is not present
+     */
+    int get(int key, int missing);
+
+    /**
+     * Primitive variant of {@link #put(Object, Object)} which avoids boxing the key and the value.
+     *
+     * @param key   with which the value is to be associated
+     * @param value to be associated with the key
+     * @return the value
+     */
+    int put(int key, int value);
+
+    /**
+     * Primitive variant of {@link #remove(Object)} which avoids boxing the key and the value.
+     *
+     * @param key     whose mapping is to be removed
+     * @param missing value to return if the key is not present
+     * @return the value that was mapped to the key, or `missing` if the key is not present
+     */
+    int removeKey(int key, int missing);
+
+    /**
+     * Inserts entries whose keys are in ascending order, as a bulk alternative to calling {@link #put(int, int)} for each.
+     *
+     * @param keys   keys to insert, in ascending order
+     * @param values values to be associated with the keys
+     * @param count  number of entries to insert from the start of the arrays
+     */
+    default void putAscending(int[] keys, int[] values, int count) {
+        for (int index = 0; index < count; index++) {
+            this.put(keys[index], values[index]);
+        }
+    }
+
+    /**
+     * @return number of nodes on the longest path from the root to a leaf, 0 if the map is empty
+     */
+    int height();
+
+    /**
+     * @return number of rotations performed to keep the tree balanced since it was created
+     */
+    long getRotationCount();
+
+    /**
+     * Primitive variant of {@link #forEach(java.util.function.BiConsumer)} which avoids boxing the keys and the values.
+     *
+     * @param action to be performed for each entry, in ascending order of keys
+     */
+    void forEachEntry(IntIntConsumer action);
+
+    /**
+     * Performs the action for each entry whose key falls in the specified range, in ascending order of keys.
+     *
+     * @param fromKey first key of the range (inclusive)
+     * @param toKey   last key of the range (inclusive)
+     * @param action  to be performed for each entry in the range
+     */
+    void forEachInRange(int fromKey, int toKey, IntIntConsumer action);
+
+    /**
+     * Removes all the entries whose key falls in the specified range.
+     *
+     * @param fromKey       first key of the range (inclusive)
+     * @param toKey         last key of the range (inclusive)
+     * @param removedAction to be performed for each removed entry, in ascending order of keys
+     * @return number of entries removed
+     */
+    int removeRange(int fromKey, int toKey, IntIntConsumer removedAction);
+}
@@ -0,0 +1,114 @@
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets, in the manner of HdrHistogram. Values below
+ * {@code SUB_BUCKET_COUNT} are counted exactly and larger ones in {@code SUB_BUCKET_COUNT} buckets per power of two, so
+ * percentiles are reported within about 3% of the recorded values in a fixed 9 KB of counts. Recording a value is a
+ * few shifts and an array increment, with no allocation. A histogram is not thread-safe: every thread records into its
+ * own histograms, which are merged when they are reported.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Values of 2^MAX_VALUE_BITS nanoseconds (about 18 minutes) and more are counted in the last bucket.
+    private static final int MAX_VALUE_BITS = 40;
+    private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts;
+
+    private long totalCount;
+
+    private long totalValue;
+
+    private long maxValue;
+
+    public LatencyHistogram() {
+        this.counts = new long[BUCKET_COUNT];
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param value latency in nanoseconds; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long recordedValue = Math.max(value, 0);
+        this.counts[bucketIndex(recordedValue)]++;
+        this.totalCount++;
+        this.totalValue += recordedValue;
+        this.maxValue = Math.max(this.maxValue, recordedValue);
+    }
+
+    /**
+     * Adds the latencies recorded in another histogram to this one.
+     *
+     * @param histogram histogram to merge into this one.
+     */
+    public void add(LatencyHistogram histogram) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            this.counts[index] += histogram.counts[index];
+        }
+        this.totalCount += histogram.totalCount;
+        this.totalValue += histogram.totalValue;
+        this.maxValue = Math.max(this.maxValue, histogram.maxValue);
+    }
+
+    /**
+     * @return number of latencies recorded.
+     */
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * @return mean of the recorded latencies in nanoseconds, 0 if none were recorded.
+     */
+    public double getMean() {
+        return (this.totalCount == 0) ? 0 : (double) this.totalValue / this.totalCount;
+    }
+
+    /**
+     * @return largest recorded latency in nanoseconds.
+     */
+    public long getMaxValue() {
+        return this.maxValue;
+    }
+
+    /**
+     * @param percentile percentage of the recorded latencies, between 0 and 100.
+     * @return latency in nanoseconds which the given percentage of the recorded latencies do not exceed, up to the
+     * precision of the buckets, or 0 if none were recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long rank = Math.max((long) Math.ceil(percentile / 100 * this.totalCount), 1);
+        long cumulativeCount = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            cumulativeCount += this.counts[index];
+            if (cumulativeCount >= rank) {
+                return Math.min(bucketUpperBound(index), this.maxValue);
+            }
+        }
+        return this.maxValue;
+    }
+
+    // Index of the bucket counting the value: exact below SUB_BUCKET_COUNT, then SUB_BUCKET_COUNT buckets per power of two.
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_VALUE_BITS) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    // Highest value counted in the bucket.
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
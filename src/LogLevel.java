@@ -0,0 +1,24 @@
+/**
+ * Severity levels of log messages, from the most to the least verbose. Messages below the {@link Logger}'s level are
+ * discarded before they are built.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * @param levelName name of a level, in any case, e.g. {@code warn}.
+     * @param fallback  level returned if the name does not match any level.
+     * @return the level with the name, or the fallback.
+     */
+    public static LogLevel fromName(String levelName, LogLevel fallback) {
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(levelName)) {
+                return level;
+            }
+        }
+        return fallback;
+    }
+}
@@ -1,36 +1,89 @@
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
+/**
+ * Level-filtered logger writing through the shared {@link AsyncLogAppender}. The level is checked before anything else,
+ * so a filtered message costs a comparison, and the {@link Supplier} overloads do not even build the message text
+ * unless the level is enabled. Enabled messages are queued to the appender with their time and written on its thread.
+ * The level is read from the {@code gator.log.level} system property and defaults to INFO.
+ */
 public class Logger {
-    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-
-    private static final String INFO = "INFO";
-    private static final String WARN = "WARN";
-    private static final String DEBUG = "DEBUG";
-    private static final String ERROR = "ERROR";
-
-    private static void log(String level, String message) {
-        String timestamp = LocalDateTime.now().format(dateTimeFormatter);
-        if (level.equals(ERROR)) {
-            System.err.println(timestamp + " [" + level + "] " + message);
-        } else {
-            System.out.println(timestamp + " [" + level + "] " + message);
-        }
+    private static final String LEVEL_PROPERTY = "gator.log.level";
+
+    private static volatile LogLevel level = LogLevel.fromName(System.getProperty(LEVEL_PROPERTY), LogLevel.INFO);
+
+    private final AsyncLogAppender appender;
+
+    public Logger() {
+        this.appender = AsyncLogAppender.getInstance();
+    }
+
+    /**
+     * Sets the level below which messages are discarded, for every logger.
+     *
+     * @param minimumLevel least severe level that is written
+     */
+    public static void setLevel(LogLevel minimumLevel) {
+        level = minimumLevel;
+    }
+
+    /**
+     * @param messageLevel level of a message.
+     * @return `true` if messages of the level are written, `false` if they are discarded.
+     */
+    public static boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.compareTo(level) >= 0;
+    }
+
+    /**
+     * Waits until every message logged so far has been written.
+     */
+    public static void flush() {
+        AsyncLogAppender.getInstance().flush();
     }
 
     public void info(String message) {
-        log(INFO, message);
+        this.log(LogLevel.INFO, message);
+    }
+
+    public void info(Supplier<String> messageSupplier) {
+        this.log(LogLevel.INFO, messageSupplier);
     }
 
     public void warn(String message) {
-        log(WARN, message);
+        this.log(LogLevel.WARN, message);
+    }
+
+    public void warn(Supplier<String> messageSupplier) {
+        this.log(LogLevel.WARN, messageSupplier);
     }
 
     public void debug(String message) {
-        log(DEBUG, message);
+        this.log(LogLevel.DEBUG, message);
+    }
+
+    public void debug(Supplier<String> messageSupplier) {
+        this.log(LogLevel.DEBUG, messageSupplier);
     }
 
     public void error(String message) {
-        log(ERROR, message);
+        this.log(LogLevel.ERROR, message);
+    }
+
+    public void error(Supplier<String> messageSupplier) {
+        this.log(LogLevel.ERROR, messageSupplier);
+    }
+
+    // Queues the message if its level is enabled.
+    private void log(LogLevel messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            this.appender.append(messageLevel, message, System.currentTimeMillis());
+        }
+    }
+
+    // Builds and queues the message only if its level is enabled.
+    private void log(LogLevel messageLevel, Supplier<String> messageSupplier) {
+        if (isEnabled(messageLevel)) {
+            this.appender.append(messageLevel, messageSupplier.get(), System.currentTimeMillis());
+        }
     }
 }
@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads commands from a memory-mapped input file, tokenizing each line straight from the mapped bytes without decoding
+ * it into a {@code String}. The file is mapped in windows, so inputs larger than 2 GB are supported; a line that
+ * crosses the end of a window is read again from the start of the next window.
+ */
+public class MappedCommandReader implements CommandReader {
+    private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel fileChannel;
+    private final long fileSize;
+    private final long windowSize;
+    private final CommandTokenizer commandTokenizer;
+    private final MappedLine mappedLine;
+
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private int position;
+    private boolean skippingLine;
+
+    public MappedCommandReader(Path filePath) throws IOException {
+        this(filePath, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param filePath   path of the input file
+     * @param windowSize number of bytes mapped at a time; lines longer than this are skipped as they are never valid commands
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedCommandReader(Path filePath, long windowSize) throws IOException {
+        this.fileChannel = FileChannel.open(filePath, StandardOpenOption.READ);
+        this.fileSize = this.fileChannel.size();
+        this.windowSize = Math.min(Math.max(windowSize, 1), Integer.MAX_VALUE);
+        this.commandTokenizer = new CommandTokenizer();
+        this.mappedLine = new MappedLine();
+        this.mapWindow(0);
+    }
+
+    @Override
+    public boolean nextCommand() throws IOException {
+        while (true) {
+            int limit = this.window.limit();
+            boolean isLastWindow = this.windowOffset + limit >= this.fileSize;
+            if (this.position >= limit) {
+                if (isLastWindow) {
+                    return false;
+                }
+                this.mapWindow(this.windowOffset + limit);
+                continue;
+            }
+
+            int lineStart = this.position;
+            int lineEnd = lineStart;
+            while (lineEnd < limit && !isLineTerminator(this.window.get(lineEnd))) {
+                lineEnd++;
+            }
+
+            // The line continues past the window: map the next window from the start of the line, or skip the line if it fills the whole window.
+            if (lineEnd == limit && !isLastWindow) {
+                if (lineStart > 0) {
+                    this.mapWindow(this.windowOffset + lineStart);
+                } else {
+                    this.skippingLine = true;
+                    this.mapWindow(this.windowOffset + limit);
+                }
+                continue;
+            }
+
+            this.position = lineEnd + 1;
+            if (lineEnd < limit && this.window.get(lineEnd) == '\r' && this.position < limit && this.window.get(this.position) == '\n') {
+                this.position++;
+            }
+            if (this.skippingLine) {
+                this.skippingLine = false;
+                continue;
+            }
+
+            this.mappedLine.reset(this.window, lineStart, lineEnd);
+            if (this.commandTokenizer.tokenize(this.mappedLine)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public CommandType getCommandType() {
+        return this.commandTokenizer.getCommandType();
+    }
+
+    @Override
+    public int getArgument(int argumentIndex) {
+        return this.commandTokenizer.getArgument(argumentIndex);
+    }
+
+    @Override
+    public int getEventId() {
+        return this.commandTokenizer.getEventId();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.fileChannel.close();
+    }
+
+    // Maps the window of the file starting at the given offset.
+    private void mapWindow(long offset) throws IOException {
+        long length = Math.min(this.windowSize, this.fileSize - offset);
+        this.window = this.fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        this.windowOffset = offset;
+        this.position = 0;
+    }
+
+    // Line terminators as recognized by BufferedReader.readLine: \n, \r or \r\n.
+    private static boolean isLineTerminator(byte character) {
+        return character == '\n' || character == '\r';
+    }
+
+    // Reusable character view over a line of the mapped bytes, so tokenizing a line allocates nothing.
+    private static class MappedLine implements CharSequence {
+        private ByteBuffer buffer;
+        private int start;
+        private int end;
+
+        void reset(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (this.buffer.get(this.start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return this.toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder stringBuilder = new StringBuilder(this.length());
+            for (int index = 0; index < this.length(); index++) {
+                stringBuilder.append(this.charAt(index));
+            }
+            return stringBuilder.toString();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -8,14 +9,18 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
-public class RBTreeMap implements Map<Integer, Integer> {
+public class RBTreeMap implements IntTreeMap {
     private static final Logger logger = new Logger();
+    private static final int INITIAL_RANGE_CAPACITY = 16;
 
     private RBTreeNode rootNode;
 
     private int size;
 
+    private long rotationCount;
+
     public RBTreeMap() {
         this.size = 0;
     }
@@ -34,21 +39,39 @@ public class RBTreeMap implements Map<Integer, Integer> {
     public boolean containsKey(Object key) {
         assert Objects.nonNull(key) : "Key should not be null";
 
-        return Objects.nonNull(this.searchKey(this.rootNode, (Integer) key));
+        return this.containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return Objects.nonNull(this.findNode(key));
     }
 
     @Override
     public boolean containsValue(Object value) {
         assert Objects.nonNull(value) && value instanceof Integer : "Key should not be null";
 
-        return Objects.nonNull(this.searchValue(this.rootNode, (Integer) value));
+        int searchValue = (Integer) value;
+        for (RBTreeNode treeNode = this.firstNode(); Objects.nonNull(treeNode); treeNode = this.successor(treeNode)) {
+            if (treeNode.getValue() == searchValue) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Integer get(Object key) {
         assert Objects.nonNull(key) : "Key should not be null";
 
-        return this.searchKey(this.rootNode, (Integer) key);
+        RBTreeNode treeNode = this.findNode((Integer) key);
+        return Objects.isNull(treeNode) ? null : treeNode.getValue();
+    }
+
+    @Override
+    public int get(int key, int missing) {
+        RBTreeNode treeNode = this.findNode(key);
+        return Objects.isNull(treeNode) ? missing : treeNode.getValue();
     }
 
     @Override
@@ -56,24 +79,70 @@ public class RBTreeMap implements Map<Integer, Integer> {
         assert Objects.nonNull(key) : "Key should not be null";
         assert Objects.nonNull(value) : "Value should not be null";
 
+        return this.put((int) key, (int) value);
+    }
+
+    @Override
+    public int put(int key, int value) {
         this.insertKVPair(key, value, this.rootNode);
         this.size++;
         return value;
     }
 
+    /**
+     * Inserts entries whose keys are in ascending order, searching for the place of each key from the previously inserted
+     * node (a finger) rather than from the root. Keys past the largest key are appended straight below the last node, and
+     * other keys usually land a few nodes away from the finger, so the search is short instead of O(log n) from the root.
+     *
+     * @param keys   keys to insert, in ascending order
+     * @param values values to be associated with the keys
+     * @param count  number of entries to insert from the start of the arrays
+     */
+    @Override
+    public void putAscending(int[] keys, int[] values, int count) {
+        RBTreeNode lastNode = this.lastNode();
+        RBTreeNode fingerNode = null;
+        for (int index = 0; index < count; index++) {
+            int key = keys[index];
+            RBTreeNode startNode = this.rootNode;
+            boolean appendsLast = Objects.isNull(lastNode) || lastNode.getKey() <= key;
+            if (Objects.nonNull(lastNode) && appendsLast) {
+                startNode = lastNode;
+            } else if (Objects.nonNull(fingerNode) && fingerNode.getKey() <= key) {
+                // Climb while the parent still precedes the key: the subtree reached then spans the key's place.
+                startNode = fingerNode;
+                while (Objects.nonNull(startNode.getParent()) && startNode.getParent().getKey() <= key) {
+                    startNode = startNode.getParent();
+                }
+            }
+            fingerNode = this.insertKVPair(key, values[index], startNode);
+            if (appendsLast) {
+                lastNode = fingerNode;
+            }
+            this.size++;
+        }
+    }
+
     @Override
     public Integer remove(Object key) {
         assert Objects.nonNull(key) : "Key should not be null";
 
-        if (this.size == 0 || Objects.isNull(this.rootNode)) {
+        RBTreeNode treeNode = this.findNode((Integer) key);
+        if (Objects.isNull(treeNode)) {
             return null;
         }
+        this.size--;
+        return this.deleteKVPair(treeNode);
+    }
 
-        Integer value = this.deleteKVPair((Integer) key, this.rootNode);
-        if (Objects.nonNull(value)) {
-            this.size--;
+    @Override
+    public int removeKey(int key, int missing) {
+        RBTreeNode treeNode = this.findNode(key);
+        if (Objects.isNull(treeNode)) {
+            return missing;
         }
-        return value;
+        this.size--;
+        return this.deleteKVPair(treeNode);
     }
 
     @Override
@@ -86,38 +155,111 @@ public class RBTreeMap implements Map<Integer, Integer> {
 
     @Override
     public void clear() {
-        this.clearAllNodes(this.rootNode);
+        this.rootNode = null;
+        this.size = 0;
     }
 
     @Override
     public Set<Integer> keySet() {
         Set<Integer> keySet = new HashSet<>();
-        this.getKeyValues(this.rootNode, keySet, true);
+        this.forEach((key, value) -> keySet.add(key));
         return keySet;
     }
 
     @Override
     public Collection<Integer> values() {
         List<Integer> valuesList = new ArrayList<>();
-        this.getKeyValues(this.rootNode, valuesList, false);
+        this.forEach((key, value) -> valuesList.add(value));
         return valuesList;
     }
 
     @Override
     public Set<Entry<Integer, Integer>> entrySet() {
         Set<Entry<Integer, Integer>> set = new HashSet<>();
-        this.addEntriesInOrder(this.rootNode, set);
+        this.forEach((key, value) -> set.add(Map.entry(key, value)));
         return set;
     }
 
+    /**
+     * Performs the action for each entry in ascending order of keys, traversing the tree directly without copying the entries.
+     *
+     * @param action to be performed for each entry
+     */
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super Integer> action) {
+        this.forEachEntry(action::accept);
+    }
+
+    @Override
+    public void forEachEntry(IntIntConsumer action) {
+        for (RBTreeNode treeNode = this.firstNode(); Objects.nonNull(treeNode); treeNode = this.successor(treeNode)) {
+            action.accept(treeNode.getKey(), treeNode.getValue());
+        }
+    }
+
+    /**
+     * Performs the action for each entry whose key falls in the specified range, in ascending order of keys.
+     * Subtrees outside the range are skipped, so the cost is O(k + log n) for k matching entries.
+     *
+     * @param fromKey first key of the range (inclusive)
+     * @param toKey   last key of the range (inclusive)
+     * @param action  to be performed for each entry in the range
+     */
+    @Override
+    public void forEachInRange(int fromKey, int toKey, IntIntConsumer action) {
+        RBTreeNode treeNode = this.ceilingNode(fromKey);
+        while (Objects.nonNull(treeNode) && treeNode.getKey() <= toKey) {
+            action.accept(treeNode.getKey(), treeNode.getValue());
+            treeNode = this.successor(treeNode);
+        }
+    }
+
+    /**
+     * Removes all the entries whose key falls in the specified range. The cost depends on the number of matching
+     * entries, not on the width of the range.
+     *
+     * @param fromKey       first key of the range (inclusive)
+     * @param toKey         last key of the range (inclusive)
+     * @param removedAction to be performed for each removed entry, in ascending order of keys
+     * @return number of entries removed
+     */
+    @Override
+    public int removeRange(int fromKey, int toKey, IntIntConsumer removedAction) {
+        int[] rangeKeys = new int[INITIAL_RANGE_CAPACITY];
+        int keyCount = 0;
+        for (RBTreeNode treeNode = this.ceilingNode(fromKey); Objects.nonNull(treeNode) && treeNode.getKey() <= toKey;
+             treeNode = this.successor(treeNode)) {
+            if (keyCount == rangeKeys.length) {
+                rangeKeys = Arrays.copyOf(rangeKeys, keyCount * 2);
+            }
+            rangeKeys[keyCount++] = treeNode.getKey();
+        }
+
+        // Deleting a node may move another key into it, so every key is looked up again rather than deleted by node.
+        for (int index = 0; index < keyCount; index++) {
+            removedAction.accept(rangeKeys[index], this.removeKey(rangeKeys[index], 0));
+        }
+        return keyCount;
+    }
+
+    @Override
+    public int height() {
+        return this.subtreeHeight(this.rootNode);
+    }
+
+    @Override
+    public long getRotationCount() {
+        return this.rotationCount;
+    }
+
     @Override
     public Integer getOrDefault(Object key, Integer defaultValue) {
-        return Map.super.getOrDefault(key, defaultValue);
+        return IntTreeMap.super.getOrDefault(key, defaultValue);
     }
 
     @Override
     public Integer putIfAbsent(Integer key, Integer value) {
-        if (!this.containsKey(key)) {
+        if (!this.containsKey((int) key)) {
             this.insertKVPair(key, value, this.rootNode);
             this.size++;
             return value;
@@ -127,55 +269,113 @@ public class RBTreeMap implements Map<Integer, Integer> {
 
     @Override
     public boolean replace(Integer key, Integer oldValue, Integer newValue) {
-        return Map.super.replace(key, oldValue, newValue);
+        return IntTreeMap.super.replace(key, oldValue, newValue);
     }
 
     @Override
     public Integer replace(Integer key, Integer value) {
-        return Map.super.replace(key, value);
+        return IntTreeMap.super.replace(key, value);
     }
 
-    // Searches for a key in the Red-Black tree similar to search in a BST.
-    private Integer searchKey(RBTreeNode treeNode, int key) {
-        if (Objects.isNull(treeNode)) {
-            return null;
+    // Searches for a key in the Red-Black tree and returns its node if found, otherwise null. A key inserted several
+    // times is found at its first node in key order, i.e. the earliest inserted one still present, whatever the shape of
+    // the tree, so lookups and removals pick the same entry as in ArrayRBTreeMap.
+    private RBTreeNode findNode(int key) {
+        RBTreeNode treeNode = this.ceilingNode(key);
+        return (Objects.nonNull(treeNode) && treeNode.getKey() == key) ? treeNode : null;
+    }
+
+    // Returns the number of nodes on the longest path from the node down to a leaf. The subtree is walked depth-first by
+    // following the parent pointers, like the other traversals, so it needs no stack.
+    private int subtreeHeight(RBTreeNode subtreeRoot) {
+        int height = 0;
+        int depth = 1;
+        RBTreeNode previousNode = Objects.isNull(subtreeRoot) ? null : subtreeRoot.getParent();
+        RBTreeNode treeNode = subtreeRoot;
+        while (Objects.nonNull(treeNode)) {
+            RBTreeNode nextNode;
+            if (previousNode == treeNode.getParent()) {
+                // Arrived from above: descend into the first child, or go back up from a leaf.
+                height = Math.max(height, depth);
+                nextNode = Objects.nonNull(treeNode.getLeftChild()) ? treeNode.getLeftChild()
+                        : Objects.nonNull(treeNode.getRightChild()) ? treeNode.getRightChild() : treeNode.getParent();
+            } else if (previousNode == treeNode.getLeftChild() && Objects.nonNull(treeNode.getRightChild())) {
+                nextNode = treeNode.getRightChild();
+            } else {
+                nextNode = treeNode.getParent();
+            }
+            if (treeNode == subtreeRoot && nextNode == treeNode.getParent()) {
+                break;
+            }
+            depth += (nextNode == treeNode.getParent()) ? -1 : 1;
+            previousNode = treeNode;
+            treeNode = nextNode;
         }
+        return height;
+    }
 
-        if (key == treeNode.getKey()) {
-            return treeNode.getValue();
-        } else if (key < treeNode.getKey()) {
-            return searchKey(treeNode.getLeftChild(), key);
-        } else {
-            return searchKey(treeNode.getRightChild(), key);
+    // Returns the node with the largest key, or null if the tree is empty.
+    private RBTreeNode lastNode() {
+        RBTreeNode treeNode = this.rootNode;
+        while (Objects.nonNull(treeNode) && Objects.nonNull(treeNode.getRightChild())) {
+            treeNode = treeNode.getRightChild();
         }
+        return treeNode;
     }
 
-    // Recursively searches for a value in the Red-Black tree and returns it if found, otherwise null.
-    private Integer searchValue(RBTreeNode treeNode, int value) {
-        if (Objects.isNull(treeNode)) {
-            return null;
+    // Returns the node with the smallest key, or null if the tree is empty.
+    private RBTreeNode firstNode() {
+        RBTreeNode treeNode = this.rootNode;
+        while (Objects.nonNull(treeNode) && Objects.nonNull(treeNode.getLeftChild())) {
+            treeNode = treeNode.getLeftChild();
         }
-        if (value == treeNode.getValue()) {
-            return value;
+        return treeNode;
+    }
+
+    // Returns the node with the smallest key greater than or equal to the given key, or null if there is none.
+    private RBTreeNode ceilingNode(int key) {
+        RBTreeNode treeNode = this.rootNode;
+        RBTreeNode ceilingNode = null;
+        while (Objects.nonNull(treeNode)) {
+            if (key <= treeNode.getKey()) {
+                ceilingNode = treeNode;
+                treeNode = treeNode.getLeftChild();
+            } else {
+                treeNode = treeNode.getRightChild();
+            }
         }
+        return ceilingNode;
+    }
 
-        Integer leftSearch = searchValue(treeNode.getLeftChild(), value);
-        if (Objects.nonNull(leftSearch)) {
-            return leftSearch;
+    // Returns the in-order successor of the node by following the parent pointers, so traversals need no stack.
+    private RBTreeNode successor(RBTreeNode treeNode) {
+        if (Objects.nonNull(treeNode.getRightChild())) {
+            treeNode = treeNode.getRightChild();
+            while (Objects.nonNull(treeNode.getLeftChild())) {
+                treeNode = treeNode.getLeftChild();
+            }
+            return treeNode;
         }
 
-        return searchValue(treeNode.getRightChild(), value);
+        RBTreeNode parentNode = treeNode.getParent();
+        while (Objects.nonNull(parentNode) && treeNode == parentNode.getRightChild()) {
+            treeNode = parentNode;
+            parentNode = parentNode.getParent();
+        }
+        return parentNode;
     }
 
-    // Inserts a key-value pair into the Red-Black Tree and balances the tree based on the type of insertion through rotations and recoloring.
-    private void insertKVPair(Integer key, Integer value, RBTreeNode treeNode) {
+    // Inserts a key-value pair into the Red-Black Tree, searching for its place from the given node, and balances the tree
+    // based on the type of insertion through rotations and recoloring. Returns the node holding the new pair.
+    private RBTreeNode insertKVPair(int key, int value, RBTreeNode treeNode) {
         // If the node is null, initialize it as the root node.
         if (Objects.isNull(treeNode)) {
             this.rootNode = new RBTreeNode(key, value, RBTreeNode.NodeColor.BLACK);
-            return;
+            return this.rootNode;
         }
 
         NodeDirection nodeDirection = null;
+        RBTreeNode newNode = null;
 
         // Insert node as inserting in a BST
         while (Objects.nonNull(treeNode)) {
@@ -184,7 +384,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 if (Objects.nonNull(treeNode.getLeftChild())) {
                     treeNode = treeNode.getLeftChild();
                 } else {
-                    RBTreeNode newNode = new RBTreeNode(key, value);
+                    newNode = new RBTreeNode(key, value);
                     this.addRBTreeChildNode(treeNode, newNode, nodeDirection);
                     break;
                 }
@@ -193,7 +393,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 if (Objects.nonNull(treeNode.getRightChild())) {
                     treeNode = treeNode.getRightChild();
                 } else {
-                    RBTreeNode newNode = new RBTreeNode(key, value);
+                    newNode = new RBTreeNode(key, value);
                     this.addRBTreeChildNode(treeNode, newNode, nodeDirection);
                     break;
                 }
@@ -202,22 +402,11 @@ public class RBTreeMap implements Map<Integer, Integer> {
 
         // Balance the Red-Black tree after insertion, based on the type of imbalance. Consider treeNode here as the pp node.
         this.balanceRBTreePostInsert(treeNode, nodeDirection);
+        return newNode;
     }
 
-    // Deletes a key-value pair if found and balances the Red-Black tree based on the type of deletion.
-    private Integer deleteKVPair(int key, RBTreeNode treeNode) {
-        while (Objects.nonNull(treeNode) && key != treeNode.getKey()) {
-            if (key < treeNode.getKey()) {
-                treeNode = treeNode.getLeftChild();
-            } else if (key > treeNode.getKey()) {
-                treeNode = treeNode.getRightChild();
-            }
-        }
-
-        if (Objects.isNull(treeNode) || key != treeNode.getKey()) {
-            return null;
-        }
-
+    // Deletes the node's key-value pair and balances the Red-Black tree based on the type of deletion.
+    private int deleteKVPair(RBTreeNode treeNode) {
         int value = treeNode.getValue();
         if (Objects.nonNull(treeNode.getLeftChild()) && Objects.nonNull(treeNode.getRightChild())) {
             RBTreeNode itrTreeNode = treeNode.getLeftChild();
@@ -234,39 +423,6 @@ public class RBTreeMap implements Map<Integer, Integer> {
         return value;
     }
 
-    // This method recursively removes all nodes in the subtree rooted at the given rbTreeNode, resetting the tree.
-    private void clearAllNodes(RBTreeNode rbTreeNode) {
-        if (Objects.isNull(rbTreeNode)) {
-            return;
-        }
-        clearAllNodes(rbTreeNode.getLeftChild());
-        clearAllNodes(rbTreeNode.getRightChild());
-
-        rbTreeNode.setLeftChild(null);
-        rbTreeNode.setRightChild(null);
-    }
-
-    // Recursively traverses the Red-Black tree and adds either keys or values to the given collection.
-    private void getKeyValues(RBTreeNode treeNode, Collection<Integer> collection, boolean insertKeys) {
-        if (Objects.isNull(treeNode)) {
-            return;
-        }
-        collection.add((insertKeys) ? treeNode.getKey() : treeNode.getValue());
-        getKeyValues(treeNode.getLeftChild(), collection, insertKeys);
-        getKeyValues(treeNode.getRightChild(), collection, insertKeys);
-    }
-
-    // Traverse the Red-Black tree in-order and adds key-value pairs to the given set.
-    private void addEntriesInOrder(RBTreeNode treeNode, Set<Entry<Integer, Integer>> set) {
-        if (Objects.isNull(treeNode)) {
-            return;
-        }
-        addEntriesInOrder(treeNode.getLeftChild(), set);
-        treeNode.getKey();
-        set.add(Map.entry(treeNode.getKey(), treeNode.getValue()));
-        addEntriesInOrder(treeNode.getRightChild(), set);
-    }
-
     // Balances the Red-Black tree after an insertion, adjusting node colors and performing rotations based on the tree's imbalance.
     private void balanceRBTreePostInsert(RBTreeNode treeNode, NodeDirection nodeDirection) {
         boolean continueLoop = true;
@@ -389,7 +545,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                     siblingNode.setNodeColor(RBTreeNode.NodeColor.RED);
                     boolean continueLoop = this.Xb0Deletion(parentNode, siblingNode);
                     if (continueLoop) {
-                        treeNode = treeNode.getParent();
+                        treeNode = parentNode;
                         continue;
                     }
                 } else {
@@ -447,6 +603,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
         this.updateGrandParent(parentNode, treeNode);
         parentNode.setNodeColor(RBTreeNode.NodeColor.RED);
         treeNode.setNodeColor(RBTreeNode.NodeColor.BLACK);
+        this.rotationCount++;
 
         if (nodeDirection == NodeDirection.LEFT) {
             this.addRBTreeChildNode(parentNode, treeNode.getRightChild(), NodeDirection.LEFT);
@@ -485,6 +642,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
         if (Objects.nonNull(childNode)) {
             childNode.setNodeColor(RBTreeNode.NodeColor.BLACK);
             parentNode.setNodeColor(RBTreeNode.NodeColor.RED);
+            this.rotationCount += 2;
         }
         this.checkAndUpdateRoot(childNode);
     }
@@ -515,6 +673,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 // Perform RR Rotation by pivoting around the siblingChildNode node.
                 this.addRBTreeChildNode(parentNode, siblingNode.getLeftChild(), NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingNode, parentNode, NodeDirection.LEFT);
+                this.rotationCount++;
 
                 this.checkAndUpdateRoot(siblingNode);
             } else if (Objects.nonNull(siblingNode.getLeftChild()) && siblingNode.getLeftChild().getNodeColor() == RBTreeNode.NodeColor.RED) {
@@ -528,6 +687,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 this.addRBTreeChildNode(parentNode, siblingChildNode.getLeftChild(), NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingChildNode, siblingNode, NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingChildNode, parentNode, NodeDirection.LEFT);
+                this.rotationCount += 2;
 
                 this.checkAndUpdateRoot(siblingChildNode);
             }
@@ -541,6 +701,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 // Perform LL Rotation by pivoting around the siblingChildNode node.
                 this.addRBTreeChildNode(parentNode, siblingNode.getRightChild(), NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingNode, parentNode, NodeDirection.RIGHT);
+                this.rotationCount++;
 
                 this.checkAndUpdateRoot(siblingNode);
             } else if (Objects.nonNull(siblingNode.getRightChild()) && siblingNode.getRightChild().getNodeColor() == RBTreeNode.NodeColor.RED) {
@@ -554,6 +715,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 this.addRBTreeChildNode(parentNode, siblingChildNode.getRightChild(), NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingChildNode, siblingNode, NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingChildNode, parentNode, NodeDirection.RIGHT);
+                this.rotationCount += 2;
 
                 this.checkAndUpdateRoot(siblingChildNode);
             }
@@ -578,6 +740,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
             this.addRBTreeChildNode(parentNode, siblingNode.getRightChild(), NodeDirection.LEFT);
             this.addRBTreeChildNode(siblingNode, parentNode, NodeDirection.RIGHT);
         }
+        this.rotationCount++;
 
         this.checkAndUpdateRoot(siblingNode);
     }
@@ -587,12 +750,13 @@ public class RBTreeMap implements Map<Integer, Integer> {
         if (nodeDirection == NodeDirection.LEFT) {
             if (!isXr2Deletion && Objects.nonNull(siblingChildNode.getRightChild()) && siblingChildNode.getRightChild().getNodeColor() == RBTreeNode.NodeColor.RED) {
                 this.updateGrandParent(parentNode, siblingChildNode);
-                siblingChildNode.getLeftChild().setNodeColor(RBTreeNode.NodeColor.BLACK);
+                siblingChildNode.getRightChild().setNodeColor(RBTreeNode.NodeColor.BLACK);
 
                 this.addRBTreeChildNode(parentNode, siblingChildNode.getLeftChild(), NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingNode, siblingChildNode.getRightChild(), NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingChildNode, siblingNode, NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingChildNode, parentNode, NodeDirection.LEFT);
+                this.rotationCount += 2;
 
                 this.checkAndUpdateRoot(siblingChildNode);
             } else if (Objects.nonNull(siblingChildNode.getLeftChild()) && siblingChildNode.getLeftChild().getNodeColor() == RBTreeNode.NodeColor.RED) {
@@ -604,6 +768,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 this.addRBTreeChildNode(siblingChildNode, siblingGrandChildNode.getRightChild(), NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingGrandChildNode, siblingNode, NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingGrandChildNode, parentNode, NodeDirection.LEFT);
+                this.rotationCount += 2;
 
                 this.checkAndUpdateRoot(siblingGrandChildNode);
             }
@@ -616,6 +781,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 this.addRBTreeChildNode(siblingNode, siblingChildNode.getLeftChild(), NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingChildNode, siblingNode, NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingChildNode, parentNode, NodeDirection.RIGHT);
+                this.rotationCount += 2;
 
                 this.checkAndUpdateRoot(siblingChildNode);
             } else if (Objects.nonNull(siblingChildNode.getRightChild()) && siblingChildNode.getRightChild().getNodeColor() == RBTreeNode.NodeColor.RED) {
@@ -627,6 +793,7 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 this.addRBTreeChildNode(siblingChildNode, siblingGrandChildNode.getLeftChild(), NodeDirection.RIGHT);
                 this.addRBTreeChildNode(siblingGrandChildNode, siblingNode, NodeDirection.LEFT);
                 this.addRBTreeChildNode(siblingGrandChildNode, parentNode, NodeDirection.RIGHT);
+                this.rotationCount += 2;
 
                 this.checkAndUpdateRoot(siblingGrandChildNode);
             }
@@ -691,11 +858,11 @@ public class RBTreeMap implements Map<Integer, Integer> {
         int currentLevel = 1;
         queue.add(new AbstractMap.SimpleEntry<>(this.rootNode, 1));
         while (!queue.isEmpty()) {
-            System.out.println("Level-" + currentLevel);
+            logger.info("Level-" + currentLevel);
             while (!queue.isEmpty() && currentLevel == queue.peek().getValue()) {
                 AbstractMap.SimpleEntry<RBTreeNode, Integer> tuple = queue.poll();
                 RBTreeNode node = tuple.getKey();
-                System.out.println("Key: " + node.getKey() + " Value: " + node.getValue() + " Color: " + node.getNodeColor());
+                logger.info("Key: " + node.getKey() + " Value: " + node.getValue() + " Color: " + node.getNodeColor());
 
                 if (Objects.nonNull(node.getLeftChild())) {
                     queue.add(new AbstractMap.SimpleEntry<>(node.getLeftChild(), currentLevel + 1));
@@ -705,7 +872,6 @@ public class RBTreeMap implements Map<Integer, Integer> {
                 }
             }
             currentLevel++;
-            System.out.println();
         }
     }
 
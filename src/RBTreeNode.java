@@ -3,8 +3,8 @@
  * Each node has a key-value pair, a parent node, left and right children, and a color (RED or BLACK).
  */
 public class RBTreeNode {
-    private Integer key;
-    private Integer value;
+    private int key;
+    private int value;
     private RBTreeNode parent;
     private RBTreeNode leftChild;
     private RBTreeNode rightChild;
@@ -79,8 +79,8 @@ public class RBTreeNode {
     }
 
     public void empty() {
-        this.key = null;
-        this.value = null;
+        this.key = 0;
+        this.value = 0;
         this.parent = null;
         this.leftChild = null;
         this.rightChild = null;
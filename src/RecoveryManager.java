@@ -0,0 +1,135 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Makes the processing of an input recoverable after a crash. State-changing commands are journaled before they are
+ * executed and committed in groups, once enough commands have been executed or enough time has passed, so a whole group
+ * costs one {@code fsync}. Every so many commands the state is snapshotted and the journal emptied, so restarting only
+ * loads the latest snapshot and replays the journal tail, however many commands were processed before.
+ */
+public class RecoveryManager implements Closeable {
+    private static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+    private static final String JOURNAL_FILE_NAME = "journal.bin";
+    private static final int DEFAULT_GROUP_COMMIT_SIZE = 4096;
+    private static final long DEFAULT_GROUP_COMMIT_INTERVAL_NANOS = 10_000_000L;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL = 1_000_000L;
+
+    private final Path directory;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final InputActionsHandler inputActionsHandler;
+    private final int groupCommitSize;
+    private final long groupCommitIntervalNanos;
+    private final long snapshotInterval;
+    private final Logger logger;
+
+    private CommandJournal journal;
+    private long uncommittedCommands;
+    private long lastCommitNanos;
+    private long lastSnapshotCommandCount;
+
+    public RecoveryManager(Path directory, InputActionsHandler inputActionsHandler) {
+        this(directory, inputActionsHandler, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_GROUP_COMMIT_INTERVAL_NANOS, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * @param directory                directory holding the snapshot and the journal
+     * @param inputActionsHandler      handler whose state is made recoverable; it must not have executed any command yet
+     * @param groupCommitSize          number of executed commands after which a group is committed
+     * @param groupCommitIntervalNanos time after which a group is committed, even if it has fewer commands
+     * @param snapshotInterval         number of executed commands after which a new snapshot is taken
+     */
+    public RecoveryManager(Path directory, InputActionsHandler inputActionsHandler, int groupCommitSize,
+                           long groupCommitIntervalNanos, long snapshotInterval) {
+        this.directory = directory;
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE_NAME);
+        this.journalPath = directory.resolve(JOURNAL_FILE_NAME);
+        this.inputActionsHandler = inputActionsHandler;
+        this.groupCommitSize = Math.max(groupCommitSize, 1);
+        this.groupCommitIntervalNanos = groupCommitIntervalNanos;
+        this.snapshotInterval = Math.max(snapshotInterval, 1);
+        this.logger = new Logger();
+    }
+
+    /**
+     * Restores the handler from the latest snapshot and the committed journal tail.
+     *
+     * @return checkpoint where processing of the input resumes
+     * @throws IOException if the snapshot or the journal cannot be read
+     */
+    public Checkpoint recover() throws IOException {
+        Files.createDirectories(this.directory);
+        Checkpoint snapshotCheckpoint = SnapshotFile.read(this.snapshotPath, this.inputActionsHandler);
+        this.journal = CommandJournal.open(this.journalPath, snapshotCheckpoint, this.inputActionsHandler);
+        this.lastSnapshotCommandCount = snapshotCheckpoint.getCommandCount();
+        this.lastCommitNanos = System.nanoTime();
+
+        Checkpoint checkpoint = this.journal.getRecoveredCheckpoint();
+        if (checkpoint.getCommandCount() > 0) {
+            logger.info("Recovered state after " + checkpoint.getCommandCount() + " commands, "
+                    + (checkpoint.getCommandCount() - snapshotCheckpoint.getCommandCount()) + " of them replayed from the journal.");
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Journals a command before it is executed. Commands which do not change the state are not journaled.
+     *
+     * @param commandType    type of the command
+     * @param firstArgument  first argument of the command
+     * @param secondArgument second argument of the command
+     * @param thirdArgument  third argument of the command
+     * @throws IOException if the journal cannot be written
+     */
+    public void beforeCommand(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument) throws IOException {
+        if (commandType.isMutating()) {
+            this.journal.append(commandType, firstArgument, secondArgument, thirdArgument);
+        }
+    }
+
+    /**
+     * Commits the current group once it is large or old enough, after a command has been executed.
+     *
+     * @param commandCount number of commands of the input executed so far
+     * @param responses    sink holding the responses of the executed commands
+     * @throws IOException if the output or the journal cannot be written
+     */
+    public void afterCommand(long commandCount, ChannelResponseSink responses) throws IOException {
+        this.uncommittedCommands++;
+        if (this.uncommittedCommands >= this.groupCommitSize || System.nanoTime() - this.lastCommitNanos >= this.groupCommitIntervalNanos) {
+            this.commit(commandCount, responses);
+        }
+    }
+
+    /**
+     * Commits the current group: forces the responses, then the journal, to disk. Takes a snapshot if enough commands
+     * were executed since the last one.
+     *
+     * @param commandCount number of commands of the input executed so far
+     * @param responses    sink holding the responses of the executed commands
+     * @throws IOException if the output, the journal or the snapshot cannot be written
+     */
+    public void commit(long commandCount, ChannelResponseSink responses) throws IOException {
+        responses.sync();
+        Checkpoint checkpoint = new Checkpoint(commandCount, responses.position());
+        this.journal.commit(checkpoint);
+        this.uncommittedCommands = 0;
+        this.lastCommitNanos = System.nanoTime();
+
+        if (commandCount - this.lastSnapshotCommandCount >= this.snapshotInterval) {
+            SnapshotFile.write(this.snapshotPath, checkpoint, this.inputActionsHandler);
+            this.journal.reset();
+            this.lastSnapshotCommandCount = commandCount;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(this.journal)) {
+            this.journal.close();
+        }
+    }
+}
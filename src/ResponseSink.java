@@ -0,0 +1,26 @@
+/**
+ * Destination of command responses. Handlers append the fixed fragments and numbers of a response directly and then
+ * end it, so responses are written out without being formatted into intermediate strings or lists.
+ */
+public interface ResponseSink {
+    /**
+     * Appends a fixed fragment of the current response.
+     *
+     * @param fragment text to append
+     * @return this sink
+     */
+    ResponseSink append(String fragment);
+
+    /**
+     * Appends the decimal representation of a number to the current response.
+     *
+     * @param value number to append
+     * @return this sink
+     */
+    ResponseSink append(int value);
+
+    /**
+     * Ends the current response, terminating its line.
+     */
+    void endResponse();
+}
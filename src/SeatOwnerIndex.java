@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+/**
+ * Reverse index from seat number to the user holding the seat, stored as an array indexed by seat number.
+ * Answers "who holds seat X?" in constant time. The array starts small and doubles as higher seat numbers are reserved.
+ */
+public class SeatOwnerIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int noOwner;
+
+    private int[] seatOwners;
+
+    /**
+     * @param noOwner value returned for seats that are not held by any user; must not be a valid user ID.
+     */
+    public SeatOwnerIndex(int noOwner) {
+        this.noOwner = noOwner;
+        this.seatOwners = new int[INITIAL_CAPACITY];
+        Arrays.fill(this.seatOwners, noOwner);
+    }
+
+    /**
+     * Records that the seat is held by the user.
+     *
+     * @param seatId seat number.
+     * @param userId ID of the user holding the seat.
+     */
+    public void occupy(int seatId, int userId) {
+        if (seatId >= this.seatOwners.length) {
+            this.grow(seatId);
+        }
+        this.seatOwners[seatId] = userId;
+    }
+
+    /**
+     * Records that the seat is no longer held by any user.
+     *
+     * @param seatId seat number.
+     */
+    public void release(int seatId) {
+        if (seatId >= 0 && seatId < this.seatOwners.length) {
+            this.seatOwners[seatId] = this.noOwner;
+        }
+    }
+
+    /**
+     * @param seatId seat number.
+     * @return ID of the user holding the seat, or the `noOwner` value if the seat is not held.
+     */
+    public int getOwner(int seatId) {
+        if (seatId < 0 || seatId >= this.seatOwners.length) {
+            return this.noOwner;
+        }
+        return this.seatOwners[seatId];
+    }
+
+    /**
+     * @param seatId seat number.
+     * @return `true` if the seat is held by a user, `false` otherwise.
+     */
+    public boolean isOccupied(int seatId) {
+        return this.getOwner(seatId) != this.noOwner;
+    }
+
+    // Doubles the array until it can hold the seat number, marking the new seats as not held.
+    private void grow(int seatId) {
+        int previousCapacity = this.seatOwners.length;
+        long newCapacity = previousCapacity;
+        while (newCapacity <= seatId) {
+            newCapacity *= 2;
+        }
+        this.seatOwners = Arrays.copyOf(this.seatOwners, (int) Math.min(newCapacity, Integer.MAX_VALUE - 8));
+        Arrays.fill(this.seatOwners, previousCapacity, this.seatOwners.length, this.noOwner);
+    }
+}
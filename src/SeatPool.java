@@ -0,0 +1,382 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Pool of free seats that always hands out the lowest available seat number, used in place of a Binary Min Heap of seats.
+ * Seats are stored as bits of a hierarchical bitset: every bit of an upper level summarizes whether the matching word of
+ * the level below has any free seat, so the lowest free seat is found with one {@code Long.numberOfTrailingZeros} per level.
+ * Inserting and extracting seats do not allocate, and a million seats take about 128 KB. The bitset starts with a single
+ * word and doubles as higher seat numbers are inserted, up to an optional maximum seat number. Runs of contiguous free
+ * seats are indexed by a {@link FreeSeatRunTree}, built the first time a block of seats is searched for.
+ */
+public class SeatPool {
+    private static final int WORD_SHIFT = 6;
+    private static final int INITIAL_CAPACITY = 63;
+    private static final int MAX_SEAT_ID = Integer.MAX_VALUE - 1;
+
+    private final int maxCapacity;
+
+    // levels[0] holds one bit per seat number, levels[levels.length - 1] is a single summary word.
+    private long[][] levels;
+
+    private int capacity;
+
+    private int currentSize;
+
+    // Index of the runs of free seats, or null until a block of seats is first searched for or after the bitset grows.
+    private FreeSeatRunTree freeRuns;
+
+    public SeatPool() {
+        this(MAX_SEAT_ID);
+    }
+
+    /**
+     * @param maxCapacity highest seat number the pool can hold.
+     */
+    public SeatPool(int maxCapacity) {
+        this.maxCapacity = Math.min(Math.max(maxCapacity, 0), MAX_SEAT_ID);
+        this.capacity = Math.min(INITIAL_CAPACITY, this.maxCapacity);
+        this.levels = buildLevels((long) this.capacity + 1);
+        this.currentSize = 0;
+    }
+
+    /**
+     * Marks the seat as free so that it can be handed out again.
+     *
+     * @param seatId seat number to be added to the pool.
+     * @return {@code true} if the seat was added to the pool,
+     * {@code false} if the seat is out of the pool's range or is already free.
+     */
+    public boolean insert(int seatId) {
+        if (seatId <= 0 || seatId > this.maxCapacity || this.contains(seatId)) {
+            return false;
+        }
+        if (seatId > this.capacity) {
+            this.grow(seatId);
+        }
+
+        this.markChanged(seatId >>> WORD_SHIFT);
+        int index = seatId;
+        for (long[] level : this.levels) {
+            long word = level[index >>> WORD_SHIFT];
+            level[index >>> WORD_SHIFT] = word | (1L << index);
+            if (word != 0) {
+                break;
+            }
+            index >>>= WORD_SHIFT;
+        }
+        this.currentSize++;
+
+        return true;
+    }
+
+    /**
+     * Marks a contiguous range of seats as free, setting whole words of the bitset at a time.
+     *
+     * @param fromSeatId first seat number of the range (inclusive).
+     * @param toSeatId   last seat number of the range (inclusive).
+     * @return number of seats added to the pool, excluding seats that were already free or are out of the pool's range.
+     */
+    public int insertRange(int fromSeatId, int toSeatId) {
+        int fromIndex = Math.max(fromSeatId, 1);
+        int toIndex = Math.min(toSeatId, this.maxCapacity);
+        if (fromIndex > toIndex) {
+            return 0;
+        }
+        if (toIndex > this.capacity) {
+            this.grow(toIndex);
+        }
+
+        int seatsAdded = setBits(this.levels[0], fromIndex, toIndex);
+        if (Objects.nonNull(this.freeRuns)) {
+            this.freeRuns.markChanged(fromIndex >>> WORD_SHIFT, toIndex >>> WORD_SHIFT);
+        }
+        for (int level = 1; level < this.levels.length; level++) {
+            fromIndex >>>= WORD_SHIFT;
+            toIndex >>>= WORD_SHIFT;
+            setBits(this.levels[level], fromIndex, toIndex);
+        }
+        this.currentSize += seatsAdded;
+
+        return seatsAdded;
+    }
+
+    /**
+     * Removes and returns the lowest free seat from the pool.
+     *
+     * @return the lowest free seat number.
+     * @throws NoSuchElementException if there is no free seat in the pool.
+     */
+    public int extractMin() {
+        if (this.currentSize <= 0) {
+            throw new NoSuchElementException("Cannot extract minimum: Seat pool is empty.");
+        }
+
+        int seatId = 0;
+        for (int level = this.levels.length - 1; level >= 0; level--) {
+            seatId = (seatId << WORD_SHIFT) | Long.numberOfTrailingZeros(this.levels[level][seatId]);
+        }
+
+        this.markChanged(seatId >>> WORD_SHIFT);
+        int index = seatId;
+        for (long[] level : this.levels) {
+            long word = level[index >>> WORD_SHIFT] & ~(1L << index);
+            level[index >>> WORD_SHIFT] = word;
+            if (word != 0) {
+                break;
+            }
+            index >>>= WORD_SHIFT;
+        }
+        this.currentSize--;
+
+        return seatId;
+    }
+
+    /**
+     * Removes the lowest free seats from the pool in one pass, taking them a word of the bitset at a time.
+     *
+     * @param seatIds array receiving the extracted seat numbers in ascending order.
+     * @param count   number of seats to extract.
+     * @return number of seats extracted, which is less than `count` if the pool runs out of free seats.
+     */
+    public int extractMins(int[] seatIds, int count) {
+        int extractCount = Math.min(Math.min(count, seatIds.length), this.currentSize);
+        int extracted = 0;
+        while (extracted < extractCount) {
+            int wordIndex = 0;
+            for (int level = this.levels.length - 1; level > 0; level--) {
+                wordIndex = (wordIndex << WORD_SHIFT) | Long.numberOfTrailingZeros(this.levels[level][wordIndex]);
+            }
+
+            long word = this.levels[0][wordIndex];
+            while (word != 0 && extracted < extractCount) {
+                seatIds[extracted++] = (wordIndex << WORD_SHIFT) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+            this.levels[0][wordIndex] = word;
+            this.markChanged(wordIndex);
+
+            int index = wordIndex;
+            for (int level = 1; level < this.levels.length && word == 0; level++) {
+                word = this.levels[level][index >>> WORD_SHIFT] & ~(1L << index);
+                this.levels[level][index >>> WORD_SHIFT] = word;
+                index >>>= WORD_SHIFT;
+            }
+        }
+        this.currentSize -= extracted;
+
+        return extracted;
+    }
+
+    /**
+     * Finds the lowest block of contiguous free seats of the given size, in O(log n) however fragmented the free seats are.
+     *
+     * @param seatCount number of seats in the block.
+     * @return the first seat number of the lowest block, or -1 if no block of free seats is large enough.
+     */
+    public int findFreeBlock(int seatCount) {
+        if (seatCount <= 0 || seatCount > this.currentSize) {
+            return -1;
+        }
+        if (Objects.isNull(this.freeRuns)) {
+            this.freeRuns = new FreeSeatRunTree(this.levels[0]);
+        }
+        return this.freeRuns.findRun(this.levels[0], seatCount);
+    }
+
+    /**
+     * Removes a block of contiguous seats from the pool, clearing whole words of the bitset at a time.
+     *
+     * @param fromSeatId first seat number of the block (inclusive).
+     * @param toSeatId   last seat number of the block (inclusive).
+     * @throws NoSuchElementException if any seat of the block is not free.
+     */
+    public void extractBlock(int fromSeatId, int toSeatId) {
+        if (fromSeatId <= 0 || fromSeatId > toSeatId || toSeatId > this.capacity
+                || countBits(this.levels[0], fromSeatId, toSeatId) != toSeatId - fromSeatId + 1) {
+            throw new NoSuchElementException("Cannot extract block: Seats " + fromSeatId + " to " + toSeatId + " are not all free.");
+        }
+
+        int fromIndex = fromSeatId;
+        int toIndex = toSeatId;
+        clearBits(this.levels[0], fromIndex, toIndex);
+        if (Objects.nonNull(this.freeRuns)) {
+            this.freeRuns.markChanged(fromIndex >>> WORD_SHIFT, toIndex >>> WORD_SHIFT);
+        }
+        for (int level = 1; level < this.levels.length; level++) {
+            long[] lowerLevel = this.levels[level - 1];
+            fromIndex >>>= WORD_SHIFT;
+            toIndex >>>= WORD_SHIFT;
+            for (int index = fromIndex; index <= toIndex; index++) {
+                if (lowerLevel[index] == 0) {
+                    this.levels[level][index >>> WORD_SHIFT] &= ~(1L << index);
+                }
+            }
+        }
+        this.currentSize -= toSeatId - fromSeatId + 1;
+    }
+
+    /**
+     * @param seatId seat number to check.
+     * @return `true` if the seat is free in the pool, `false` otherwise.
+     */
+    public boolean contains(int seatId) {
+        if (seatId <= 0 || seatId > this.capacity) {
+            return false;
+        }
+        return (this.levels[0][seatId >>> WORD_SHIFT] & (1L << seatId)) != 0;
+    }
+
+    /**
+     * @param fromSeatId seat number to start searching from (inclusive).
+     * @return the lowest free seat number not below `fromSeatId`, or -1 if there is none.
+     */
+    public int nextFreeSeat(int fromSeatId) {
+        int seatId = this.nextSeat(fromSeatId, 0L);
+        return (seatId > this.capacity) ? -1 : seatId;
+    }
+
+    /**
+     * @param fromSeatId seat number to start searching from (inclusive).
+     * @return the lowest seat number not below `fromSeatId` which is not free, or one past the highest seat number the
+     * pool currently holds if all of them are free.
+     */
+    public int nextTakenSeat(int fromSeatId) {
+        return Math.min(this.nextSeat(fromSeatId, -1L), this.capacity + 1);
+    }
+
+    /**
+     * @return number of free seats in the pool.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * @return `true` if the pool has no free seat, `false` otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    // Grows the seat bits to hold at least the given seat number, doubling the capacity and rebuilding the summary levels.
+    private void grow(int seatId) {
+        long doubledCapacity = ((long) this.capacity + 1) * 2 - 1;
+        this.capacity = (int) Math.min(Math.max(doubledCapacity, seatId), this.maxCapacity);
+
+        long[] seatBits = Arrays.copyOf(this.levels[0], wordCount((long) this.capacity + 1));
+        this.freeRuns = null;
+        this.levels = buildLevels((long) this.capacity + 1);
+        this.levels[0] = seatBits;
+        for (int level = 1; level < this.levels.length; level++) {
+            long[] lowerLevel = this.levels[level - 1];
+            for (int index = 0; index < lowerLevel.length; index++) {
+                if (lowerLevel[index] != 0) {
+                    this.levels[level][index >>> WORD_SHIFT] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    // Lowest seat number not below fromSeatId whose bit differs from the flip mask (0 finds free seats, -1 taken seats).
+    private int nextSeat(int fromSeatId, long flipMask) {
+        int seatId = Math.max(fromSeatId, 1);
+        if (seatId > this.capacity) {
+            return this.capacity + 1;
+        }
+        long[] seatBits = this.levels[0];
+        int wordIndex = seatId >>> WORD_SHIFT;
+        long word = (seatBits[wordIndex] ^ flipMask) & (-1L << seatId);
+        while (word == 0) {
+            if (++wordIndex >= seatBits.length) {
+                return this.capacity + 1;
+            }
+            word = seatBits[wordIndex] ^ flipMask;
+        }
+        return (int) Math.min(((long) wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word), (long) this.capacity + 1);
+    }
+
+    // Records a changed word of the seat bits in the index of free runs, if it has been built.
+    private void markChanged(int wordIndex) {
+        if (Objects.nonNull(this.freeRuns)) {
+            this.freeRuns.markChanged(wordIndex);
+        }
+    }
+
+    // Number of bits set in the range [fromIndex, toIndex] of the level.
+    private static int countBits(long[] level, int fromIndex, int toIndex) {
+        int fromWord = fromIndex >>> WORD_SHIFT;
+        int toWord = toIndex >>> WORD_SHIFT;
+        int bitsSet = 0;
+        for (int wordIndex = fromWord; wordIndex <= toWord; wordIndex++) {
+            long mask = -1L;
+            if (wordIndex == fromWord) {
+                mask &= -1L << fromIndex;
+            }
+            if (wordIndex == toWord) {
+                mask &= -1L >>> (63 - (toIndex & 63));
+            }
+            bitsSet += Long.bitCount(mask & level[wordIndex]);
+        }
+        return bitsSet;
+    }
+
+    // Clears the bits in the range [fromIndex, toIndex] of the level.
+    private static void clearBits(long[] level, int fromIndex, int toIndex) {
+        int fromWord = fromIndex >>> WORD_SHIFT;
+        int toWord = toIndex >>> WORD_SHIFT;
+        for (int wordIndex = fromWord; wordIndex <= toWord; wordIndex++) {
+            long mask = -1L;
+            if (wordIndex == fromWord) {
+                mask &= -1L << fromIndex;
+            }
+            if (wordIndex == toWord) {
+                mask &= -1L >>> (63 - (toIndex & 63));
+            }
+            level[wordIndex] &= ~mask;
+        }
+    }
+
+    // Sets the bits in the range [fromIndex, toIndex] of the level and returns the number of bits that were not set before.
+    private static int setBits(long[] level, int fromIndex, int toIndex) {
+        int fromWord = fromIndex >>> WORD_SHIFT;
+        int toWord = toIndex >>> WORD_SHIFT;
+        int bitsSet = 0;
+        for (int wordIndex = fromWord; wordIndex <= toWord; wordIndex++) {
+            long mask = -1L;
+            if (wordIndex == fromWord) {
+                mask &= -1L << fromIndex;
+            }
+            if (wordIndex == toWord) {
+                mask &= -1L >>> (63 - (toIndex & 63));
+            }
+            bitsSet += Long.bitCount(mask & ~level[wordIndex]);
+            level[wordIndex] |= mask;
+        }
+        return bitsSet;
+    }
+
+    // Builds the bitset levels from the seat bits up to a single summary word.
+    private static long[][] buildLevels(long bitCount) {
+        int levelCount = 0;
+        long bits = bitCount;
+        do {
+            bits = wordCount(bits);
+            levelCount++;
+        } while (bits > 1);
+
+        long[][] levels = new long[levelCount][];
+        bits = bitCount;
+        for (int level = 0; level < levelCount; level++) {
+            bits = wordCount(bits);
+            levels[level] = new long[(int) bits];
+        }
+        return levels;
+    }
+
+    // Number of 64-bit words needed to hold the given number of bits.
+    private static int wordCount(long bitCount) {
+        return (int) ((bitCount + 63) >>> WORD_SHIFT);
+    }
+}
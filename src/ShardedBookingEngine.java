@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Booking engine for many independent events. Every event has its own {@link InputActionsHandler}, and events are
+ * sharded by ID across a fixed number of {@link CommandSequencer} threads. A shard's handlers are only ever touched by
+ * its own thread, so shards share no locks and no state, and throughput grows with the number of shards when the
+ * workload covers many events. Commands of the same event are executed in submission order. The handlers of a shard
+ * record their commands into the shard's {@link CommandMetrics}, so metrics take space per shard rather than per event.
+ */
+public class ShardedBookingEngine implements AutoCloseable {
+    private final CommandSequencer[] shards;
+    private final List<Map<Integer, InputActionsHandler>> shardEventHandlers;
+    private final CommandMetrics[] shardMetrics;
+
+    private volatile boolean closed;
+
+    /**
+     * @param shardCount number of worker threads the events are sharded across
+     */
+    public ShardedBookingEngine(int shardCount) {
+        this(shardCount, InputActionsHandler::new);
+    }
+
+    /**
+     * @param shardCount     number of worker threads the events are sharded across
+     * @param handlerFactory creates the handler of an event when its first command arrives, recording into the metrics
+     *                       of the event's shard
+     */
+    public ShardedBookingEngine(int shardCount, Function<CommandMetrics, InputActionsHandler> handlerFactory) {
+        this.shards = new CommandSequencer[Math.max(shardCount, 1)];
+        this.shardEventHandlers = new ArrayList<>(this.shards.length);
+        this.shardMetrics = new CommandMetrics[this.shards.length];
+        for (int shardIndex = 0; shardIndex < this.shards.length; shardIndex++) {
+            // Only accessed by the shard's own thread until it stops, so a plain HashMap is enough.
+            Map<Integer, InputActionsHandler> eventHandlers = new HashMap<>();
+            CommandMetrics metrics = new CommandMetrics();
+            this.shardEventHandlers.add(eventHandlers);
+            this.shardMetrics[shardIndex] = metrics;
+            this.shards[shardIndex] = new CommandSequencer("event-shard-" + shardIndex,
+                    eventId -> eventHandlers.computeIfAbsent(eventId, newEventId -> handlerFactory.apply(metrics)));
+        }
+    }
+
+    /**
+     * Submits a command for execution on the shard of its event.
+     *
+     * @param eventId        event the command is addressed to
+     * @param commandType    type of the command
+     * @param firstArgument  first argument of the command, ignored if the command takes none
+     * @param secondArgument second argument of the command, ignored if the command takes fewer than two
+     * @param thirdArgument  third argument of the command, ignored if the command takes fewer than three
+     * @return future completed with the responses of the command once it has been executed
+     * @throws IllegalStateException if the engine has been closed
+     */
+    public CompletableFuture<List<String>> submit(int eventId, CommandType commandType, int firstArgument, int secondArgument,
+                                                  int thirdArgument) {
+        return this.shards[Math.floorMod(eventId, this.shards.length)]
+                .submit(eventId, commandType, firstArgument, secondArgument, thirdArgument);
+    }
+
+    /**
+     * @return number of worker threads the events are sharded across.
+     */
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * Performs the action for the handler of every event that received a command, once the engine is closed.
+     *
+     * @param action to be performed for each event handler
+     * @throws IllegalStateException if the engine has not been closed, as the shards may still be using the handlers
+     */
+    public void forEachEventHandler(Consumer<InputActionsHandler> action) {
+        if (!this.closed) {
+            throw new IllegalStateException("Event handlers can only be visited once the engine is closed.");
+        }
+        for (Map<Integer, InputActionsHandler> eventHandlers : this.shardEventHandlers) {
+            eventHandlers.values().forEach(action);
+        }
+    }
+
+    /**
+     * Adds the commands executed by every shard and the state of every event that received a command to the metrics,
+     * once the engine is closed.
+     *
+     * @param metrics metrics to add to
+     * @throws IllegalStateException if the engine has not been closed, as the shards may still be recording
+     */
+    public void collectMetrics(CommandMetrics metrics) {
+        this.forEachEventHandler(eventHandler -> eventHandler.collectMetrics(metrics));
+        for (CommandMetrics metricsOfShard : this.shardMetrics) {
+            metrics.add(metricsOfShard);
+        }
+    }
+
+    /**
+     * Stops accepting commands, waits for every command already submitted to be executed and stops the shards. If
+     * interrupted while waiting, returns early with the interrupt flag set and the engine is not considered closed until
+     * a later call returns normally.
+     */
+    @Override
+    public void close() {
+        boolean terminated = true;
+        for (CommandSequencer shard : this.shards) {
+            shard.close();
+            terminated &= shard.isTerminated();
+        }
+        this.closed = terminated;
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary snapshot of the state of an {@link InputActionsHandler} along with the {@link Checkpoint} it was taken at.
+ * Snapshots are written to a temporary file, forced to disk and atomically moved over the previous snapshot, so a crash
+ * while writing leaves the previous snapshot intact.
+ */
+public final class SnapshotFile {
+    private static final byte[] MAGIC = {'G', 'T', 'M', 'S'};
+    private static final byte VERSION = 1;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Restores the handler from the snapshot, if there is one.
+     *
+     * @param snapshotPath        path of the snapshot file
+     * @param inputActionsHandler handler which has not executed any command yet
+     * @return checkpoint the snapshot was taken at, or {@link Checkpoint#START} if there is no snapshot
+     * @throws IOException if the snapshot cannot be read
+     */
+    public static Checkpoint read(Path snapshotPath, InputActionsHandler inputActionsHandler) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return Checkpoint.START;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            byte[] magic = new byte[MAGIC.length];
+            input.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a snapshot: magic bytes do not match");
+            }
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            Checkpoint checkpoint = new Checkpoint(input.readLong(), input.readLong());
+            inputActionsHandler.readSnapshot(input);
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the handler, replacing the previous snapshot.
+     *
+     * @param snapshotPath        path of the snapshot file
+     * @param checkpoint          checkpoint the state of the handler corresponds to
+     * @param inputActionsHandler handler whose state is written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Path snapshotPath, Checkpoint checkpoint, InputActionsHandler inputActionsHandler) throws IOException {
+        Path temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel fileChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(fileChannel)));
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+            output.writeLong(checkpoint.getCommandCount());
+            output.writeLong(checkpoint.getOutputLength());
+            inputActionsHandler.writeSnapshot(output);
+            output.flush();
+            fileChannel.force(true);
+        }
+        Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
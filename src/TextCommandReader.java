@@ -0,0 +1,47 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Reads commands line by line from a text input through a {@link BufferedReader}.
+ */
+public class TextCommandReader implements CommandReader {
+    private final BufferedReader reader;
+    private final CommandTokenizer commandTokenizer;
+
+    public TextCommandReader(BufferedReader reader) {
+        this.reader = reader;
+        this.commandTokenizer = new CommandTokenizer();
+    }
+
+    @Override
+    public boolean nextCommand() throws IOException {
+        String line;
+        while (Objects.nonNull(line = this.reader.readLine())) {
+            if (this.commandTokenizer.tokenize(line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public CommandType getCommandType() {
+        return this.commandTokenizer.getCommandType();
+    }
+
+    @Override
+    public int getArgument(int argumentIndex) {
+        return this.commandTokenizer.getArgument(argumentIndex);
+    }
+
+    @Override
+    public int getEventId() {
+        return this.commandTokenizer.getEventId();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
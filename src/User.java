@@ -27,6 +27,10 @@ public class User implements Comparable<User> {
         this.userId = userId;
     }
 
+    public int getUserPriority() {
+        return this.userPriority;
+    }
+
     public long getTimestamp() {
         return this.timestamp;
     }
@@ -0,0 +1,63 @@
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Checks made by the tests, each throwing an {@link AssertionError} describing the mismatch when it does not hold.
+ */
+public final class Assertions {
+    private Assertions() {
+    }
+
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void assertEquals(long expected, long actual, String message) {
+        if (expected != actual) {
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    public static void assertEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    /**
+     * Checks that the lists hold the same elements in the same order, reporting the first element which differs.
+     */
+    public static void assertLinesEqual(List<String> expected, List<String> actual, String message) {
+        int commonSize = Math.min(expected.size(), actual.size());
+        for (int index = 0; index < commonSize; index++) {
+            if (!expected.get(index).equals(actual.get(index))) {
+                throw new AssertionError(message + ": line " + (index + 1) + " expected \"" + expected.get(index)
+                        + "\" but was \"" + actual.get(index) + "\"");
+            }
+        }
+        if (expected.size() != actual.size()) {
+            throw new AssertionError(message + ": expected " + expected.size() + " lines but was " + actual.size());
+        }
+    }
+
+    /**
+     * Checks that the arrays hold the same bytes, reporting the offset of the first byte which differs.
+     */
+    public static void assertBytesEqual(byte[] expected, byte[] actual, String message) {
+        int commonLength = Math.min(expected.length, actual.length);
+        for (int index = 0; index < commonLength; index++) {
+            if (expected[index] != actual[index]) {
+                throw new AssertionError(message + ": bytes differ at offset " + index);
+            }
+        }
+        if (expected.length != actual.length) {
+            throw new AssertionError(message + ": expected " + expected.length + " bytes but was " + actual.length);
+        }
+    }
+
+    public static void fail(String message) {
+        throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,54 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests of {@link BatchFileProcessor}: every input file of a directory gets the output file that processing it on its
+ * own writes, next to it in the same directory.
+ */
+public class BatchFileProcessorTests {
+    private static final long SEED = 5536;
+    private static final int COMMAND_COUNT = 2_000;
+    private static final int USER_ID_RANGE = 200;
+    private static final int FILE_COUNT = 3;
+    private static final int THREAD_COUNT = 2;
+
+    /**
+     * @return the batch file processor tests.
+     */
+    public static List<TestCase> all() {
+        return Collections.singletonList(
+                new TestCase("batchOutputsInDottedDirectory", BatchFileProcessorTests::batchOutputsInDottedDirectory));
+    }
+
+    // Processes a directory whose name contains a dot: the output files are named after the input file names only.
+    private static void batchOutputsInDottedDirectory() throws IOException {
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            Path expectedPath = directoryPath.resolve("expected");
+            Path batchPath = directoryPath.resolve("in.d");
+            Files.createDirectories(expectedPath);
+            Files.createDirectories(batchPath);
+            for (int fileIndex = 0; fileIndex < FILE_COUNT; fileIndex++) {
+                List<String> commands = TestInputs.commands(SEED + fileIndex, COMMAND_COUNT, USER_ID_RANGE);
+                commands.add("Quit()");
+                Files.write(expectedPath.resolve("input" + fileIndex + ".txt"), commands);
+                Files.write(batchPath.resolve("input" + fileIndex + ".txt"), commands);
+                new FileIOProcessor(false).processFile(expectedPath.resolve("input" + fileIndex + ".txt").toString());
+            }
+
+            new BatchFileProcessor(THREAD_COUNT).processFiles(Collections.singletonList(batchPath.toString()));
+
+            for (int fileIndex = 0; fileIndex < FILE_COUNT; fileIndex++) {
+                String outputFileName = "input" + fileIndex + "_output_file.txt";
+                Assertions.assertBytesEqual(Files.readAllBytes(expectedPath.resolve(outputFileName)),
+                        Files.readAllBytes(batchPath.resolve(outputFileName)), "Batch output of " + outputFileName);
+            }
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+}
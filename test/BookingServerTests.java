@@ -0,0 +1,175 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests of {@link BookingServer}: clients pipelining their commands over TCP get the responses in the order of their
+ * commands, while other clients feed the same shards concurrently, and a client that stops reading stops being read
+ * from without losing any response.
+ */
+public class BookingServerTests {
+    private static final long SEED = 5536;
+    private static final int SHARD_COUNT = 2;
+    private static final int CLIENT_COUNT = 3;
+    private static final int COMMAND_COUNT = 20_000;
+    private static final int USER_ID_RANGE = 500;
+    private static final int EVENTS_PER_CLIENT = 3;
+    // Every so many commands, a line which is not a command and gets no response.
+    private static final int INVALID_LINE_INTERVAL = 997;
+    // Commands of the client that does not read at first, whose responses are several times the server's output buffer.
+    private static final int UNREAD_COMMAND_COUNT = 500_000;
+    private static final long UNREAD_MILLIS = 1_000;
+
+    /**
+     * @return the booking server tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("serverAnswersPipelinedCommandsInOrder", BookingServerTests::serverAnswersPipelinedCommandsInOrder),
+                new TestCase("serverPausesClientNotReading", BookingServerTests::serverPausesClientNotReading));
+    }
+
+    // Each client sends all of its commands for events of its own before reading any response, then quits; the lines it
+    // reads until the server closes the connection are the responses of inline execution, in command order.
+    private static void serverAnswersPipelinedCommandsInOrder() throws Exception {
+        List<List<String>> clientCommands = new ArrayList<>(CLIENT_COUNT);
+        List<List<String>> expectedLines = new ArrayList<>(CLIENT_COUNT);
+        for (int client = 0; client < CLIENT_COUNT; client++) {
+            List<String> commands = clientCommands(client);
+            clientCommands.add(commands);
+            List<String> lines = new ArrayList<>();
+            TestInputs.inlineResponses(commands).forEach(lines::addAll);
+            lines.add("Program Terminated!!");
+            expectedLines.add(lines);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<List<String>> receivedLines = new ArrayList<>(CLIENT_COUNT);
+        try (BookingServer bookingServer = new BookingServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SHARD_COUNT)) {
+            Thread serverThread = new Thread(() -> {
+                try {
+                    bookingServer.serve();
+                } catch (IOException | RuntimeException exception) {
+                    failure.compareAndSet(null, exception);
+                }
+            }, "booking-server");
+            serverThread.start();
+
+            List<Thread> clients = new ArrayList<>(CLIENT_COUNT);
+            for (int client = 0; client < CLIENT_COUNT; client++) {
+                List<String> commands = clientCommands.get(client);
+                List<String> lines = new ArrayList<>();
+                receivedLines.add(lines);
+                clients.add(new Thread(() -> {
+                    try {
+                        runClient(bookingServer.getPort(), commands, lines, 0);
+                    } catch (IOException | InterruptedException exception) {
+                        failure.compareAndSet(null, exception);
+                    }
+                }, "client-" + client));
+            }
+            clients.forEach(Thread::start);
+            for (Thread client : clients) {
+                client.join();
+            }
+        }
+        if (Objects.nonNull(failure.get())) {
+            throw new AssertionError("Client or server failed", failure.get());
+        }
+
+        for (int client = 0; client < CLIENT_COUNT; client++) {
+            Assertions.assertLinesEqual(expectedLines.get(client), receivedLines.get(client), "Responses of client " + client);
+        }
+    }
+
+    // A client sends commands whose responses exceed the output the server buffers before reading any of them: the server
+    // stops reading from it until it reads, then answers every command in order.
+    private static void serverPausesClientNotReading() throws Exception {
+        List<String> commands = new ArrayList<>(UNREAD_COMMAND_COUNT + 1);
+        commands.add("Initialize(5)");
+        for (int index = 0; index < UNREAD_COMMAND_COUNT; index++) {
+            commands.add("Available()");
+        }
+        List<String> expectedLines = new ArrayList<>();
+        TestInputs.inlineResponses(commands).forEach(expectedLines::addAll);
+        expectedLines.add("Program Terminated!!");
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<String> receivedLines = new ArrayList<>();
+        try (BookingServer bookingServer = new BookingServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), SHARD_COUNT)) {
+            Thread serverThread = new Thread(() -> {
+                try {
+                    bookingServer.serve();
+                } catch (IOException | RuntimeException exception) {
+                    failure.compareAndSet(null, exception);
+                }
+            }, "booking-server");
+            serverThread.start();
+            runClient(bookingServer.getPort(), commands, receivedLines, UNREAD_MILLIS);
+        }
+        if (Objects.nonNull(failure.get())) {
+            throw new AssertionError("Server failed", failure.get());
+        }
+
+        Assertions.assertLinesEqual(expectedLines, receivedLines, "Responses of the client not reading at first");
+    }
+
+    // Commands of the client's own events, interleaved with lines which are not commands, ending with Quit().
+    private static List<String> clientCommands(int client) {
+        List<String> commands = new ArrayList<>();
+        // No two clients share an event, while they share the shards.
+        List<String> eventCommands = TestInputs.eventCommands(SEED + client, COMMAND_COUNT, USER_ID_RANGE,
+                1 + client * EVENTS_PER_CLIENT, EVENTS_PER_CLIENT);
+        for (int index = 0; index < eventCommands.size(); index++) {
+            commands.add(eventCommands.get(index));
+            if (index % INVALID_LINE_INTERVAL == 0) {
+                commands.add("Reserve(" + index);
+            }
+        }
+        return commands;
+    }
+
+    // Writes every command on a thread of its own without waiting for responses, and after the delay reads the response
+    // lines until the server closes the connection after Quit().
+    private static void runClient(int port, List<String> commands, List<String> lines, long readDelayMillis)
+            throws IOException, InterruptedException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            AtomicReference<IOException> writeFailure = new AtomicReference<>();
+            Thread writer = new Thread(() -> {
+                try {
+                    OutputStream output = new BufferedOutputStream(socket.getOutputStream());
+                    for (String command : commands) {
+                        output.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+                    }
+                    output.write("Quit()\n".getBytes(StandardCharsets.US_ASCII));
+                    output.flush();
+                } catch (IOException exception) {
+                    writeFailure.set(exception);
+                }
+            }, "client-writer");
+            writer.start();
+            Thread.sleep(readDelayMillis);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                lines.add(line);
+            }
+            writer.join();
+            if (Objects.nonNull(writeFailure.get())) {
+                throw writeFailure.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests of {@link BoundedSpscQueue}: elements come out in the order they went in, whether the queue is used from one
+ * thread or by a producer and a consumer running concurrently, and the queue never holds more than its capacity.
+ */
+public class BoundedSpscQueueTests {
+    private static final int ELEMENT_COUNT = 1_000_000;
+    // Small enough for the queue to keep running full and empty under a concurrent producer and consumer.
+    private static final int CONCURRENT_CAPACITY = 8;
+
+    /**
+     * @return the bounded SPSC queue tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("spscQueueBoundsCapacity", BoundedSpscQueueTests::spscQueueBoundsCapacity),
+                new TestCase("spscQueueKeepsFifoOrderAcrossThreads", BoundedSpscQueueTests::spscQueueKeepsFifoOrderAcrossThreads));
+    }
+
+    // Fills and drains a queue many times from one thread, so the indices wrap around the ring repeatedly.
+    private static void spscQueueBoundsCapacity() {
+        BoundedSpscQueue<Integer> queue = new BoundedSpscQueue<>(5);
+        int ringSize = 8;
+        int nextOffered = 0;
+        int nextPolled = 0;
+        for (int round = 0; round < 100; round++) {
+            // Alternate between filling the queue completely and only partly, so the wrap-around point moves.
+            int fillCount = (round % 2 == 0) ? ringSize : 3;
+            for (int index = 0; index < fillCount; index++) {
+                Assertions.assertTrue(queue.offer(nextOffered++), "Offer " + index + " of round " + round);
+            }
+            if (fillCount == ringSize) {
+                Assertions.assertTrue(!queue.offer(-1), "Offer to a full queue in round " + round);
+            }
+            for (int index = 0; index < fillCount; index++) {
+                Assertions.assertEquals(nextPolled++, (long) queue.poll(), "Polled element of round " + round);
+            }
+            Assertions.assertEquals(null, queue.poll(), "Poll of an empty queue in round " + round);
+        }
+    }
+
+    // A producer thread offers increasing numbers while the test thread polls them, both backing off when the queue
+    // is full or empty: every number arrives exactly once, in order.
+    private static void spscQueueKeepsFifoOrderAcrossThreads() throws InterruptedException {
+        BoundedSpscQueue<Integer> queue = new BoundedSpscQueue<>(CONCURRENT_CAPACITY);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int element = 0; element < ELEMENT_COUNT; element++) {
+                    int idleCount = 0;
+                    while (!queue.offer(element)) {
+                        idleCount = BoundedSpscQueue.backOff(idleCount);
+                    }
+                }
+            } catch (RuntimeException exception) {
+                failure.set(exception);
+            }
+        }, "spsc-producer");
+        producer.start();
+
+        for (int expected = 0; expected < ELEMENT_COUNT; expected++) {
+            Integer element;
+            int idleCount = 0;
+            while (Objects.isNull(element = queue.poll())) {
+                if (Objects.nonNull(failure.get())) {
+                    throw new AssertionError("Producer failed", failure.get());
+                }
+                idleCount = BoundedSpscQueue.backOff(idleCount);
+            }
+            if (element != expected) {
+                Assertions.fail("Polled " + element + " where " + expected + " was expected");
+            }
+        }
+        producer.join();
+        Assertions.assertEquals(null, queue.poll(), "Poll once the producer is done");
+    }
+}
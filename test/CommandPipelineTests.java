@@ -0,0 +1,103 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests of {@link CommandPipeline}: processing an input file on the three pipelined threads writes exactly the bytes
+ * that processing it inline writes, for inputs far larger than the batches in flight.
+ */
+public class CommandPipelineTests {
+    private static final long SEED = 5536;
+    private static final int COMMAND_COUNT = 100_000;
+    private static final int USER_ID_RANGE = 400;
+    // Every so many commands, one addressed to another event, which both ways of processing skip.
+    private static final int OTHER_EVENT_INTERVAL = 101;
+
+    /**
+     * @return the command pipeline tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("pipelinedOutputMatchesInline", CommandPipelineTests::pipelinedOutputMatchesInline),
+                new TestCase("pipelinedOutputStopsAtQuit", CommandPipelineTests::pipelinedOutputStopsAtQuit),
+                new TestCase("pipelinedBinaryOutputMatchesInline", CommandPipelineTests::pipelinedBinaryOutputMatchesInline));
+    }
+
+    // Input ending without Quit(), with commands of other events mixed in.
+    private static void pipelinedOutputMatchesInline() throws IOException {
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            List<String> commands = commands(SEED);
+            Path inlinePath = directoryPath.resolve("inline.txt");
+            Path pipelinedPath = directoryPath.resolve("pipelined.txt");
+            Files.write(inlinePath, commands);
+            Files.write(pipelinedPath, commands);
+
+            assertSameOutput(inlinePath, pipelinedPath);
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Input with Quit() in the middle of a batch: neither way of processing executes the commands after it.
+    private static void pipelinedOutputStopsAtQuit() throws IOException {
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            List<String> commands = commands(SEED + 1);
+            commands.add(COMMAND_COUNT / 2 + 17, "Quit()");
+            Path inlinePath = directoryPath.resolve("inline.txt");
+            Path pipelinedPath = directoryPath.resolve("pipelined.txt");
+            Files.write(inlinePath, commands);
+            Files.write(pipelinedPath, commands);
+
+            assertSameOutput(inlinePath, pipelinedPath);
+            List<String> outputLines = Files.readAllLines(directoryPath.resolve("pipelined_output_file.txt"));
+            Assertions.assertEquals("Program Terminated!!", outputLines.get(outputLines.size() - 1), "Last response");
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Binary command log converted from a text input, processed pipelined, against the text input processed inline.
+    private static void pipelinedBinaryOutputMatchesInline() throws IOException {
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            List<String> commands = commands(SEED + 2);
+            commands.add("Quit()");
+            Path inlinePath = directoryPath.resolve("inline.txt");
+            Path pipelinedPath = directoryPath.resolve("pipelined.bin");
+            Files.write(inlinePath, commands);
+            new FileIOProcessor(false).convertFile(inlinePath.toString(), pipelinedPath.toString());
+
+            assertSameOutput(inlinePath, pipelinedPath);
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Processes the first input inline and the second pipelined, and checks their output files are byte-identical.
+    private static void assertSameOutput(Path inlinePath, Path pipelinedPath) throws IOException {
+        new FileIOProcessor(false).processFile(inlinePath.toString());
+        new FileIOProcessor(true).processFile(pipelinedPath.toString());
+
+        String pipelinedFileName = pipelinedPath.getFileName().toString();
+        int extensionStart = pipelinedFileName.indexOf('.');
+        Path pipelinedOutputPath = pipelinedPath.resolveSibling(pipelinedFileName.substring(0, extensionStart)
+                + "_output_file" + pipelinedFileName.substring(extensionStart));
+        byte[] inlineOutput = Files.readAllBytes(inlinePath.resolveSibling("inline_output_file.txt"));
+        Assertions.assertTrue(inlineOutput.length > 0, "Inline output is not empty");
+        Assertions.assertBytesEqual(inlineOutput, Files.readAllBytes(pipelinedOutputPath), "Pipelined output");
+    }
+
+    // Commands of the default event, with commands addressed to another event mixed in.
+    private static List<String> commands(long seed) {
+        List<String> commands = new ArrayList<>(TestInputs.commands(seed, COMMAND_COUNT, USER_ID_RANGE));
+        for (int index = OTHER_EVENT_INTERVAL; index < commands.size(); index += OTHER_EVENT_INTERVAL) {
+            commands.add(index, "Event(3) " + commands.get(index));
+        }
+        return commands;
+    }
+}
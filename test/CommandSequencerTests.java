@@ -0,0 +1,161 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests of {@link CommandSequencer}: commands submitted from several threads run in submission order per thread, a
+ * parked sequencer wakes up for every submission, and closing it runs the commands already submitted.
+ */
+public class CommandSequencerTests {
+    private static final long SEED = 5536;
+    private static final int COMMAND_COUNT = 20_000;
+    private static final int USER_ID_RANGE = 2_000;
+    private static final int SUBMITTER_COUNT = 4;
+
+    /**
+     * @return the command sequencer tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("sequencerKeepsSubmissionOrder", CommandSequencerTests::sequencerKeepsSubmissionOrder),
+                new TestCase("sequencerWakesForEachSubmission", CommandSequencerTests::sequencerWakesForEachSubmission),
+                new TestCase("sequencerCloseRunsSubmittedCommands", CommandSequencerTests::sequencerCloseRunsSubmittedCommands));
+    }
+
+    // Several threads pipeline the commands of their own event at once; each gets the responses of inline execution.
+    private static void sequencerKeepsSubmissionOrder() throws Exception {
+        List<List<ParsedCommand>> submitterCommands = new ArrayList<>(SUBMITTER_COUNT);
+        List<List<List<String>>> expectedResponses = new ArrayList<>(SUBMITTER_COUNT);
+        for (int submitter = 0; submitter < SUBMITTER_COUNT; submitter++) {
+            List<String> commands = TestInputs.commands(SEED + submitter, COMMAND_COUNT, USER_ID_RANGE);
+            submitterCommands.add(parse(commands));
+            expectedResponses.add(TestInputs.inlineResponses(commands));
+        }
+
+        List<List<CompletableFuture<List<String>>>> submitterResponses = new ArrayList<>(SUBMITTER_COUNT);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (CommandSequencer sequencer = newSequencer()) {
+            List<Thread> submitters = new ArrayList<>(SUBMITTER_COUNT);
+            for (int submitter = 0; submitter < SUBMITTER_COUNT; submitter++) {
+                int eventId = submitter + 1;
+                List<ParsedCommand> commands = submitterCommands.get(submitter);
+                List<CompletableFuture<List<String>>> responses = new ArrayList<>(commands.size());
+                submitterResponses.add(responses);
+                submitters.add(new Thread(() -> {
+                    try {
+                        for (ParsedCommand command : commands) {
+                            responses.add(command.submitTo(sequencer, eventId));
+                        }
+                    } catch (RuntimeException exception) {
+                        failure.compareAndSet(null, exception);
+                    }
+                }, "submitter-" + submitter));
+            }
+            submitters.forEach(Thread::start);
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+        }
+        if (Objects.nonNull(failure.get())) {
+            throw new AssertionError("Submitting failed", failure.get());
+        }
+
+        for (int submitter = 0; submitter < SUBMITTER_COUNT; submitter++) {
+            List<CompletableFuture<List<String>>> responses = submitterResponses.get(submitter);
+            Assertions.assertEquals(expectedResponses.get(submitter).size(), responses.size(), "Commands of submitter " + submitter);
+            for (int index = 0; index < responses.size(); index++) {
+                Assertions.assertEquals(expectedResponses.get(submitter).get(index), responses.get(index).get(),
+                        "Responses of command " + (index + 1) + " of submitter " + submitter);
+            }
+        }
+    }
+
+    // Waits for every command before submitting the next, so the sequencer drains its queue and parks every time:
+    // a lost wake-up leaves a command waiting forever and the test times out.
+    private static void sequencerWakesForEachSubmission() throws Exception {
+        List<String> commands = TestInputs.commands(SEED, COMMAND_COUNT, USER_ID_RANGE);
+        List<List<String>> expectedResponses = TestInputs.inlineResponses(commands);
+        List<ParsedCommand> parsedCommands = parse(commands);
+        try (CommandSequencer sequencer = newSequencer()) {
+            for (int index = 0; index < parsedCommands.size(); index++) {
+                if (index % 1_000 == 0) {
+                    // Give the sequencer time to park for real rather than only announcing it.
+                    Thread.sleep(1);
+                }
+                Assertions.assertEquals(expectedResponses.get(index), parsedCommands.get(index).submitTo(sequencer, 1).get(),
+                        "Responses of command " + (index + 1));
+            }
+        }
+    }
+
+    // Closing right after submitting still runs every submitted command, and later submissions are refused.
+    private static void sequencerCloseRunsSubmittedCommands() throws IOException, InterruptedException, ExecutionException {
+        List<String> commands = TestInputs.commands(SEED, COMMAND_COUNT, USER_ID_RANGE);
+        List<List<String>> expectedResponses = TestInputs.inlineResponses(commands);
+        List<CompletableFuture<List<String>>> responses = new ArrayList<>(commands.size());
+        CommandSequencer sequencer = newSequencer();
+        for (ParsedCommand command : parse(commands)) {
+            responses.add(command.submitTo(sequencer, 1));
+        }
+        sequencer.close();
+
+        Assertions.assertTrue(sequencer.isTerminated(), "Sequencer terminated after close");
+        for (int index = 0; index < responses.size(); index++) {
+            Assertions.assertTrue(responses.get(index).isDone(), "Command " + (index + 1) + " executed before close returned");
+            Assertions.assertEquals(expectedResponses.get(index), responses.get(index).get(), "Responses of command " + (index + 1));
+        }
+        try {
+            sequencer.submit(1, CommandType.AVAILABLE, 0, 0, 0);
+            Assertions.fail("Submitting to a closed sequencer succeeded");
+        } catch (IllegalStateException exception) {
+            // Expected, the sequencer is closed.
+        }
+    }
+
+    // Sequencer with a handler per event, created on the sequencer thread like the shards of the booking engine do.
+    private static CommandSequencer newSequencer() {
+        Map<Integer, InputActionsHandler> eventHandlers = new HashMap<>();
+        return new CommandSequencer("test-sequencer",
+                eventId -> eventHandlers.computeIfAbsent(eventId, newEventId -> new InputActionsHandler()));
+    }
+
+    // Tokenizes the command lines up front, so the submitting threads only submit.
+    private static List<ParsedCommand> parse(List<String> commands) throws IOException {
+        List<ParsedCommand> parsedCommands = new ArrayList<>(commands.size());
+        try (CommandReader reader = new TextCommandReader(new BufferedReader(new StringReader(String.join("\n", commands))))) {
+            while (reader.nextCommand()) {
+                parsedCommands.add(new ParsedCommand(reader.getCommandType(), reader.getArgument(0), reader.getArgument(1),
+                        reader.getArgument(2)));
+            }
+        }
+        return parsedCommands;
+    }
+
+    // Command tokenized from its line.
+    private static class ParsedCommand {
+        private final CommandType commandType;
+        private final int firstArgument;
+        private final int secondArgument;
+        private final int thirdArgument;
+
+        ParsedCommand(CommandType commandType, int firstArgument, int secondArgument, int thirdArgument) {
+            this.commandType = commandType;
+            this.firstArgument = firstArgument;
+            this.secondArgument = secondArgument;
+            this.thirdArgument = thirdArgument;
+        }
+
+        CompletableFuture<List<String>> submitTo(CommandSequencer sequencer, int eventId) {
+            return sequencer.submit(eventId, this.commandType, this.firstArgument, this.secondArgument, this.thirdArgument);
+        }
+    }
+}
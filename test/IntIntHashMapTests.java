@@ -0,0 +1,98 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests of {@link IntIntHashMap}: under random puts and removes, with entries shifted back over and over by removals
+ * from long probe sequences, the map holds the same mappings as a {@link HashMap}.
+ */
+public class IntIntHashMapTests {
+    private static final long SEED = 7231;
+    private static final int SEED_COUNT = 10;
+    private static final int OPERATION_COUNT = 100_000;
+    private static final int MISSING_VALUE = -1;
+    // Few enough keys for most puts and removes to hit a present key, at the load factor at which probe sequences form.
+    private static final int KEY_COUNT = 3_000;
+    private static final int CHECK_INTERVAL = 5_000;
+
+    /**
+     * @return the int-to-int hash map tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("intIntHashMapMatchesHashMap", IntIntHashMapTests::intIntHashMapMatchesHashMap),
+                new TestCase("intIntHashMapRejectsMissingValue", IntIntHashMapTests::intIntHashMapRejectsMissingValue));
+    }
+
+    // Runs random puts and removes on the map and on a HashMap, growing the map and then churning it at a steady size.
+    private static void intIntHashMapMatchesHashMap() {
+        for (long seed = SEED; seed < SEED + SEED_COUNT; seed++) {
+            Random random = new Random(seed);
+            int[] keys = randomKeys(random);
+            IntIntHashMap intIntHashMap = new IntIntHashMap(MISSING_VALUE);
+            Map<Integer, Integer> hashMap = new HashMap<>();
+
+            for (int operation = 0; operation < OPERATION_COUNT; operation++) {
+                String context = "Seed " + seed + ", operation " + operation;
+                int key = keys[random.nextInt(keys.length)];
+                int expected = hashMap.getOrDefault(key, MISSING_VALUE);
+                // Puts outweigh removes early on, so the map grows through several rehashes before settling.
+                if (random.nextInt(OPERATION_COUNT) >= operation / 2) {
+                    int value = random.nextInt(Integer.MAX_VALUE);
+                    Assertions.assertEquals(expected, intIntHashMap.put(key, value),
+                            context + ": previous value of " + key);
+                    hashMap.put(key, value);
+                } else {
+                    Assertions.assertEquals(expected, intIntHashMap.remove(key), context + ": removed value of " + key);
+                    hashMap.remove(key);
+                }
+                Assertions.assertEquals(hashMap.size(), intIntHashMap.size(), context + ": size");
+
+                if (operation % CHECK_INTERVAL == 0) {
+                    assertSameMappings(hashMap, intIntHashMap, keys, context);
+                }
+            }
+            assertSameMappings(hashMap, intIntHashMap, keys, "Seed " + seed);
+        }
+    }
+
+    // The missing value marks empty slots, so storing it is refused and leaves the map unchanged.
+    private static void intIntHashMapRejectsMissingValue() {
+        IntIntHashMap intIntHashMap = new IntIntHashMap(MISSING_VALUE);
+        intIntHashMap.put(1, 10);
+        try {
+            intIntHashMap.put(1, MISSING_VALUE);
+            Assertions.fail("Storing the missing value should have failed");
+        } catch (IllegalArgumentException expected) {
+            Assertions.assertEquals(10, intIntHashMap.get(1), "Value after the refused put");
+            Assertions.assertEquals(1, intIntHashMap.size(), "Size after the refused put");
+        }
+    }
+
+    // Consecutive keys such as user IDs, scattered keys, and the extremes of the int range.
+    private static int[] randomKeys(Random random) {
+        int[] keys = new int[KEY_COUNT];
+        int consecutiveCount = KEY_COUNT / 2;
+        for (int index = 0; index < consecutiveCount; index++) {
+            keys[index] = index;
+        }
+        for (int index = consecutiveCount; index < KEY_COUNT; index++) {
+            keys[index] = random.nextInt();
+        }
+        keys[KEY_COUNT - 2] = Integer.MIN_VALUE;
+        keys[KEY_COUNT - 1] = Integer.MAX_VALUE;
+        return keys;
+    }
+
+    private static void assertSameMappings(Map<Integer, Integer> hashMap, IntIntHashMap intIntHashMap, int[] keys,
+                                           String context) {
+        for (int key : keys) {
+            Assertions.assertEquals((int) hashMap.getOrDefault(key, MISSING_VALUE), intIntHashMap.get(key),
+                    context + ": value of " + key);
+            Assertions.assertEquals(hashMap.containsKey(key), intIntHashMap.containsKey(key),
+                    context + ": presence of " + key);
+        }
+    }
+}
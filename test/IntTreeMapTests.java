@@ -0,0 +1,144 @@
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Tests of the {@link IntTreeMap} implementations: under random puts, removals, ascending bulk puts and range
+ * operations on unique keys, {@link RBTreeMap} and {@link ArrayRBTreeMap} hold the same entries as a {@link TreeMap},
+ * hand range operations the same entries in the same order, and stay within the height bound of a red-black tree.
+ */
+public class IntTreeMapTests {
+    private static final long SEED = 9127;
+    private static final int SEED_COUNT = 5;
+    private static final int OPERATION_COUNT = 20_000;
+    private static final int MISSING_VALUE = -1;
+    private static final int MAX_KEY = 5_000;
+    private static final int MAX_BULK_SIZE = 200;
+    private static final int MAX_RANGE_WIDTH = 300;
+    private static final int CHECK_INTERVAL = 500;
+
+    /**
+     * @return the int tree map tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("rbTreeMapMatchesTreeMap", () -> intTreeMapMatchesTreeMap(RBTreeMap::new)),
+                new TestCase("arrayRBTreeMapMatchesTreeMap", () -> intTreeMapMatchesTreeMap(ArrayRBTreeMap::new)));
+    }
+
+    // Runs random operations on the map and on a TreeMap, keeping the keys unique so both hold one entry per key.
+    private static void intTreeMapMatchesTreeMap(Supplier<IntTreeMap> intTreeMapFactory) {
+        for (long seed = SEED; seed < SEED + SEED_COUNT; seed++) {
+            Random random = new Random(seed);
+            IntTreeMap intTreeMap = intTreeMapFactory.get();
+            TreeMap<Integer, Integer> treeMap = new TreeMap<>();
+            Assertions.assertEquals(0, intTreeMap.height(), "Height of an empty map");
+
+            for (int operation = 0; operation < OPERATION_COUNT; operation++) {
+                String context = intTreeMap.getClass().getSimpleName() + ", seed " + seed + ", op " + operation;
+                int key = random.nextInt(MAX_KEY);
+                int choice = random.nextInt(100);
+                if (choice < 35) {
+                    // Put: only absent keys, as a present key would be kept a second time.
+                    if (!treeMap.containsKey(key)) {
+                        int value = random.nextInt(Integer.MAX_VALUE);
+                        Assertions.assertEquals(value, intTreeMap.put(key, value), context + ": put of " + key);
+                        treeMap.put(key, value);
+                    }
+                } else if (choice < 60) {
+                    int expected = treeMap.getOrDefault(key, MISSING_VALUE);
+                    Assertions.assertEquals(expected, intTreeMap.removeKey(key, MISSING_VALUE),
+                            context + ": removed value of " + key);
+                    treeMap.remove(key);
+                } else if (choice < 70) {
+                    int expected = treeMap.getOrDefault(key, MISSING_VALUE);
+                    Assertions.assertEquals(expected, intTreeMap.get(key, MISSING_VALUE),
+                            context + ": value of " + key);
+                    Assertions.assertEquals(treeMap.containsKey(key), intTreeMap.containsKey(key),
+                            context + ": presence of " + key);
+                } else if (choice < 80) {
+                    putAscending(random, key, intTreeMap, treeMap, context);
+                } else if (choice < 90) {
+                    int toKey = key + random.nextInt(MAX_RANGE_WIDTH);
+                    List<Map.Entry<Integer, Integer>> visited = new ArrayList<>();
+                    intTreeMap.forEachInRange(key, toKey, (entryKey, value) -> visited.add(entry(entryKey, value)));
+                    Assertions.assertEquals(entries(treeMap.subMap(key, true, toKey, true)), visited,
+                            context + ": entries from " + key + " to " + toKey);
+                } else {
+                    int toKey = key + random.nextInt(MAX_RANGE_WIDTH);
+                    NavigableMap<Integer, Integer> range = treeMap.subMap(key, true, toKey, true);
+                    List<Map.Entry<Integer, Integer>> expected = entries(range);
+                    List<Map.Entry<Integer, Integer>> removed = new ArrayList<>();
+                    int removedCount = intTreeMap.removeRange(key, toKey,
+                            (entryKey, value) -> removed.add(entry(entryKey, value)));
+                    String rangeContext = context + ": removal from " + key + " to " + toKey;
+                    Assertions.assertEquals(expected.size(), removedCount, rangeContext + ", count");
+                    Assertions.assertEquals(expected, removed, rangeContext + ", entries");
+                    range.clear();
+                }
+                Assertions.assertEquals(treeMap.size(), intTreeMap.size(), context + ": size");
+
+                if (operation % CHECK_INTERVAL == 0) {
+                    assertSameEntries(treeMap, intTreeMap, context);
+                }
+            }
+            assertSameEntries(treeMap, intTreeMap, intTreeMap.getClass().getSimpleName() + ", seed " + seed);
+        }
+    }
+
+    // Bulk-puts absent keys in ascending order, sometimes all past the largest key and sometimes between present keys.
+    private static void putAscending(Random random, int fromKey, IntTreeMap intTreeMap,
+                                     TreeMap<Integer, Integer> treeMap, String context) {
+        // Appending only below the largest random key keeps the keys within reach of removals.
+        boolean appends = random.nextBoolean() && !treeMap.isEmpty() && treeMap.lastKey() < MAX_KEY;
+        int nextKey = appends ? treeMap.lastKey() : fromKey;
+        int[] keys = new int[1 + random.nextInt(MAX_BULK_SIZE)];
+        int[] values = new int[keys.length];
+        int count = 0;
+        while (count < keys.length) {
+            nextKey += 1 + random.nextInt(3);
+            if (!treeMap.containsKey(nextKey)) {
+                keys[count] = nextKey;
+                values[count] = random.nextInt(Integer.MAX_VALUE);
+                count++;
+            }
+        }
+        // Only a prefix of the arrays is put.
+        count = 1 + random.nextInt(keys.length);
+        intTreeMap.putAscending(keys, values, count);
+        for (int index = 0; index < count; index++) {
+            treeMap.put(keys[index], values[index]);
+        }
+        assertSameEntries(treeMap, intTreeMap, context + ": after putting " + count + " keys from " + keys[0]);
+    }
+
+    // Same entries in the same order, and a height between that of a perfectly balanced tree and the red-black bound.
+    private static void assertSameEntries(TreeMap<Integer, Integer> treeMap, IntTreeMap intTreeMap, String context) {
+        List<Map.Entry<Integer, Integer>> visited = new ArrayList<>();
+        intTreeMap.forEachEntry((key, value) -> visited.add(entry(key, value)));
+        Assertions.assertEquals(entries(treeMap), visited, context + ": entries");
+
+        // A tree of height h holds fewer than 2^h entries, and a red-black tree of n entries has h <= 2 log2(n + 1).
+        int height = intTreeMap.height();
+        long entryCount = treeMap.size();
+        Assertions.assertTrue(height >= 64 - Long.numberOfLeadingZeros(entryCount)
+                        && (1L << height) <= (entryCount + 1) * (entryCount + 1),
+                context + ": height " + height + " of " + entryCount + " entries");
+    }
+
+    private static List<Map.Entry<Integer, Integer>> entries(Map<Integer, Integer> map) {
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>();
+        map.forEach((key, value) -> entries.add(entry(key, value)));
+        return entries;
+    }
+
+    private static Map.Entry<Integer, Integer> entry(int key, int value) {
+        return new AbstractMap.SimpleImmutableEntry<>(key, value);
+    }
+}
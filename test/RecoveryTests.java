@@ -0,0 +1,174 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests of crash recovery: however often processing crashes, and whatever the crash left at the end of the journal
+ * and of the output, resuming produces the same output as processing the input uninterrupted.
+ */
+public class RecoveryTests {
+    private static final long SEED = 5536;
+    private static final int COMMAND_COUNT = 2_000;
+    private static final int USER_ID_RANGE = 200;
+    private static final int GROUP_COMMIT_SIZE = 7;
+    private static final int SNAPSHOT_INTERVAL = 150;
+    // Runs until the end of the input, committing the last group.
+    private static final int NO_CRASH = -1;
+    // A complete Reserve(7, 3) record, then a Cancel record torn in the middle of its first argument's varint.
+    private static final byte[] TORN_JOURNAL_TAIL = {3, 7, 3, 4, (byte) 0x85};
+    private static final byte[] UNCOMMITTED_OUTPUT = "User 7 reserved seat".getBytes();
+
+    /**
+     * @return the recovery tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("recoveryReplaysSnapshotAndJournal", RecoveryTests::recoveryReplaysSnapshotAndJournal),
+                new TestCase("recoveryCutsTornJournalTail", RecoveryTests::recoveryCutsTornJournalTail),
+                new TestCase("recoveredFileRunMatchesUninterruptedRun", RecoveryTests::recoveredFileRunMatchesUninterruptedRun),
+                new TestCase("rerunAfterQuitLeavesOutputUnchanged", RecoveryTests::rerunAfterQuitLeavesOutputUnchanged));
+    }
+
+    // Crashes repeatedly, between commits and snapshots alike, and checks the resumed output after each crash point.
+    private static void recoveryReplaysSnapshotAndJournal() throws IOException {
+        List<String> commands = TestInputs.commands(SEED, COMMAND_COUNT, USER_ID_RANGE);
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            byte[] expectedOutput = uninterruptedOutput(commands, directoryPath.resolve("uninterrupted"));
+
+            int[][] crashSchedules = {{1}, {GROUP_COMMIT_SIZE}, {SNAPSHOT_INTERVAL + 3}, {400, 403, 1_200}, {149, 150, 151, 1_999}};
+            for (int[] crashSchedule : crashSchedules) {
+                Path recoveryPath = directoryPath.resolve("recovery-" + crashSchedule[0] + "-" + crashSchedule.length);
+                Path outputPath = recoveryPath.resolve("output.txt");
+                for (int crashAfter : crashSchedule) {
+                    Assertions.assertTrue(!runWithRecovery(commands, recoveryPath, outputPath, crashAfter),
+                            "Run expected to crash after " + crashAfter + " commands");
+                }
+                Assertions.assertTrue(runWithRecovery(commands, recoveryPath, outputPath, NO_CRASH), "Resumed run completes");
+                Assertions.assertBytesEqual(expectedOutput, Files.readAllBytes(outputPath),
+                        "Output after crashing at " + Arrays.toString(crashSchedule));
+            }
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Crashes with a torn record and uncommitted responses at the end of the files, which recovery must discard.
+    private static void recoveryCutsTornJournalTail() throws IOException {
+        List<String> commands = TestInputs.commands(SEED + 1, COMMAND_COUNT, USER_ID_RANGE);
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            byte[] expectedOutput = uninterruptedOutput(commands, directoryPath.resolve("uninterrupted"));
+
+            Path recoveryPath = directoryPath.resolve("recovery");
+            Path outputPath = recoveryPath.resolve("output.txt");
+            for (int crashAfter : new int[]{90, 500, 1_000}) {
+                Assertions.assertTrue(!runWithRecovery(commands, recoveryPath, outputPath, crashAfter),
+                        "Run expected to crash after " + crashAfter + " commands");
+                Files.write(recoveryPath.resolve("journal.bin"), TORN_JOURNAL_TAIL, StandardOpenOption.APPEND);
+                Files.write(outputPath, UNCOMMITTED_OUTPUT, StandardOpenOption.APPEND);
+            }
+            Assertions.assertTrue(runWithRecovery(commands, recoveryPath, outputPath, NO_CRASH), "Resumed run completes");
+            Assertions.assertBytesEqual(expectedOutput, Files.readAllBytes(outputPath), "Output after torn journal tails");
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Processes part of an input file with recovery, tears the journal tail, then resumes on the whole file: the output
+    // file matches the one of a run without recovery.
+    private static void recoveredFileRunMatchesUninterruptedRun() throws IOException {
+        List<String> commands = TestInputs.commands(SEED + 2, COMMAND_COUNT, USER_ID_RANGE);
+        commands.add("Quit()");
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            Path expectedInputPath = directoryPath.resolve("expected.txt");
+            Files.write(expectedInputPath, commands);
+            new FileIOProcessor(false).processFile(expectedInputPath.toString());
+
+            Path inputPath = directoryPath.resolve("input.txt");
+            Path recoveryPath = directoryPath.resolve("recovery");
+            // The interrupted run only got through the first commands of the input.
+            Files.write(inputPath, commands.subList(0, COMMAND_COUNT / 3));
+            new FileIOProcessor(false).processFile(inputPath.toString(), recoveryPath.toString());
+            Files.write(recoveryPath.resolve("journal.bin"), TORN_JOURNAL_TAIL, StandardOpenOption.APPEND);
+            Files.write(directoryPath.resolve("input_output_file.txt"), UNCOMMITTED_OUTPUT, StandardOpenOption.APPEND);
+
+            Files.write(inputPath, commands);
+            new FileIOProcessor(false).processFile(inputPath.toString(), recoveryPath.toString());
+            Assertions.assertBytesEqual(Files.readAllBytes(directoryPath.resolve("expected_output_file.txt")),
+                    Files.readAllBytes(directoryPath.resolve("input_output_file.txt")), "Output of the recovered run");
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Processes an input with commands after `Quit()` to completion with recovery, then processes it again: the second run
+    // executes nothing, leaving the output ending at "Program Terminated!!".
+    private static void rerunAfterQuitLeavesOutputUnchanged() throws IOException {
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            Path inputPath = directoryPath.resolve("input.txt");
+            Path recoveryPath = directoryPath.resolve("recovery");
+            Path outputPath = directoryPath.resolve("input_output_file.txt");
+            Files.write(inputPath, Arrays.asList("Initialize(3)", "Reserve(1, 1)", "Quit()", "Reserve(2, 1)", "Reserve(3, 1)"));
+            new FileIOProcessor(false).processFile(inputPath.toString(), recoveryPath.toString());
+            byte[] completedOutput = Files.readAllBytes(outputPath);
+            Assertions.assertTrue(new String(completedOutput).endsWith("Program Terminated!!" + System.lineSeparator()), "Completed run ends at Quit()");
+
+            new FileIOProcessor(false).processFile(inputPath.toString(), recoveryPath.toString());
+            Assertions.assertBytesEqual(completedOutput, Files.readAllBytes(outputPath), "Output of the rerun after Quit()");
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Output of processing every command with recovery and no crash.
+    private static byte[] uninterruptedOutput(List<String> commands, Path recoveryPath) throws IOException {
+        Path outputPath = recoveryPath.resolve("output.txt");
+        Assertions.assertTrue(runWithRecovery(commands, recoveryPath, outputPath, NO_CRASH), "Uninterrupted run completes");
+        return Files.readAllBytes(outputPath);
+    }
+
+    // Processes the commands as FileIOProcessor does with recovery, resuming from the state in the recovery directory.
+    // With a crash point, stops right after executing that many commands of the input: the responses written so far
+    // reach the output file but the commands since the last commit never reach the journal. Returns whether the run
+    // got to the end of the commands.
+    private static boolean runWithRecovery(List<String> commands, Path recoveryPath, Path outputPath, int crashAfter)
+            throws IOException {
+        InputActionsHandler inputActionsHandler = new InputActionsHandler();
+        try (RecoveryManager recoveryManager = new RecoveryManager(recoveryPath, inputActionsHandler, GROUP_COMMIT_SIZE,
+                Long.MAX_VALUE, SNAPSHOT_INTERVAL);
+             CommandReader reader = new TextCommandReader(new BufferedReader(new StringReader(String.join("\n", commands))))) {
+            Checkpoint checkpoint = recoveryManager.recover();
+            FileChannel outputChannel = FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            outputChannel.truncate(checkpoint.getOutputLength());
+            outputChannel.position(checkpoint.getOutputLength());
+            try (ChannelResponseSink responses = new ChannelResponseSink(outputChannel)) {
+                long commandCount = 0;
+                while (commandCount < checkpoint.getCommandCount() && reader.nextCommand()) {
+                    commandCount++;
+                }
+                while (reader.nextCommand()) {
+                    recoveryManager.beforeCommand(reader.getCommandType(), reader.getArgument(0), reader.getArgument(1),
+                            reader.getArgument(2));
+                    inputActionsHandler.execute(reader.getCommandType(), reader.getArgument(0), reader.getArgument(1),
+                            reader.getArgument(2), responses);
+                    commandCount++;
+                    if (commandCount == crashAfter) {
+                        return false;
+                    }
+                    recoveryManager.afterCommand(commandCount, responses);
+                }
+                recoveryManager.commit(commandCount, responses);
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Tests of {@link SeatPool} and its {@link FreeSeatRunTree}: under random mixes of the seat operations behind Reserve,
+ * ReserveBatch, Cancel, ReleaseSeats, AddSeats and ReserveBlock, the pool hands out the same seats and finds the same
+ * lowest blocks of free seats as a plain bitset of the free seats.
+ */
+public class SeatPoolTests {
+    private static final long SEED = 5536;
+    private static final int SEED_COUNT = 20;
+    private static final int OPERATION_COUNT = 5_000;
+    // Several words of the bitset, so blocks and ranges cross word boundaries; the pool grows from one word to them.
+    private static final int MAX_SEATS = 1_500;
+    private static final int INITIAL_SEATS = 300;
+    // Longer than a word, so blocks span several words of the bitset.
+    private static final int MAX_BLOCK_SIZE = 150;
+    // Searches are sometimes this many operations apart, so more words change than the run tree queues and it rebuilds.
+    private static final int MAX_OPERATIONS_BETWEEN_SEARCHES = 120;
+
+    /**
+     * @return the seat pool tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("seatPoolMatchesBitsetModel", SeatPoolTests::seatPoolMatchesBitsetModel));
+    }
+
+    // Runs random operations on a pool and on the model, checking the seats handed out and the blocks found.
+    private static void seatPoolMatchesBitsetModel() {
+        for (long seed = SEED; seed < SEED + SEED_COUNT; seed++) {
+            Random random = new Random(seed);
+            SeatPool seatPool = new SeatPool(MAX_SEATS);
+            BitSet freeSeats = new BitSet();
+            int highestSeat = INITIAL_SEATS;
+            Assertions.assertEquals(INITIAL_SEATS, seatPool.insertRange(1, INITIAL_SEATS), "Initialized seats");
+            freeSeats.set(1, INITIAL_SEATS + 1);
+
+            int operationsUntilSearch = 0;
+            for (int operation = 0; operation < OPERATION_COUNT; operation++) {
+                String context = "Seed " + seed + ", operation " + operation;
+                int choice = random.nextInt(100);
+                if (choice < 25) {
+                    // Reserve: the lowest free seat.
+                    if (!freeSeats.isEmpty()) {
+                        int seatId = freeSeats.nextSetBit(1);
+                        Assertions.assertEquals(seatId, seatPool.extractMin(), context + ": lowest free seat");
+                        freeSeats.clear(seatId);
+                    }
+                } else if (choice < 35) {
+                    // ReserveBatch: the lowest free seats at once.
+                    int[] seatIds = new int[1 + random.nextInt(MAX_BLOCK_SIZE)];
+                    int extracted = seatPool.extractMins(seatIds, seatIds.length);
+                    Assertions.assertEquals(Math.min(seatIds.length, freeSeats.cardinality()), extracted,
+                            context + ": seats extracted");
+                    for (int index = 0; index < extracted; index++) {
+                        int seatId = freeSeats.nextSetBit(1);
+                        Assertions.assertEquals(seatId, seatIds[index], context + ": seat " + index + " of the batch");
+                        freeSeats.clear(seatId);
+                    }
+                } else if (choice < 60) {
+                    // Cancel: a taken seat is freed again.
+                    int seatId = 1 + random.nextInt(highestSeat);
+                    Assertions.assertEquals(!freeSeats.get(seatId), seatPool.insert(seatId),
+                            context + ": seat " + seatId + " inserted");
+                    freeSeats.set(seatId);
+                } else if (choice < 70) {
+                    // ReleaseSeats: the seats of a range of users, scattered over the seats, are freed one by one.
+                    int releasedCount = 1 + random.nextInt(MAX_BLOCK_SIZE);
+                    for (int index = 0; index < releasedCount; index++) {
+                        int seatId = 1 + random.nextInt(highestSeat);
+                        Assertions.assertEquals(!freeSeats.get(seatId), seatPool.insert(seatId),
+                                context + ": released seat " + seatId);
+                        freeSeats.set(seatId);
+                    }
+                } else if (choice < 75) {
+                    // AddSeats: new seats past the highest one, growing the pool.
+                    int addedCount = Math.min(1 + random.nextInt(MAX_BLOCK_SIZE), MAX_SEATS - highestSeat);
+                    Assertions.assertEquals(addedCount, seatPool.insertRange(highestSeat + 1, highestSeat + addedCount),
+                            context + ": added seats");
+                    freeSeats.set(highestSeat + 1, highestSeat + addedCount + 1);
+                    highestSeat += addedCount;
+                } else if (operationsUntilSearch <= 0) {
+                    // ReserveBlock: the lowest block of contiguous free seats.
+                    int blockSize = 1 + random.nextInt(MAX_BLOCK_SIZE);
+                    int firstSeatId = lowestFreeBlock(freeSeats, blockSize);
+                    Assertions.assertEquals(firstSeatId, seatPool.findFreeBlock(blockSize),
+                            context + ": block of " + blockSize);
+                    if (firstSeatId > 0) {
+                        int lastSeatId = firstSeatId + blockSize - 1;
+                        seatPool.extractBlock(firstSeatId, lastSeatId);
+                        freeSeats.clear(firstSeatId, lastSeatId + 1);
+                        assertExtractBlockFails(seatPool, lastSeatId, lastSeatId + 1, context);
+                    }
+                    operationsUntilSearch = random.nextBoolean() ? 0 : random.nextInt(MAX_OPERATIONS_BETWEEN_SEARCHES);
+                }
+                operationsUntilSearch--;
+
+                Assertions.assertEquals(freeSeats.cardinality(), seatPool.size(), context + ": free seat count");
+            }
+
+            for (int seatId = 1; seatId <= MAX_SEATS; seatId++) {
+                Assertions.assertEquals(freeSeats.get(seatId), seatPool.contains(seatId),
+                        "Seed " + seed + ": seat " + seatId + " free");
+            }
+        }
+    }
+
+    // A block that starts on a seat just taken cannot be extracted, and the pool is left unchanged.
+    private static void assertExtractBlockFails(SeatPool seatPool, int fromSeatId, int toSeatId, String context) {
+        int sizeBefore = seatPool.size();
+        try {
+            seatPool.extractBlock(fromSeatId, toSeatId);
+            Assertions.fail(context + ": extracting seats " + fromSeatId + " to " + toSeatId + " should have failed");
+        } catch (NoSuchElementException expected) {
+            Assertions.assertEquals(sizeBefore, seatPool.size(), context + ": free seats after a failed extraction");
+        }
+    }
+
+    // First seat of the lowest run of blockSize free seats in the model, or -1 if there is none.
+    private static int lowestFreeBlock(BitSet freeSeats, int blockSize) {
+        int runStart = freeSeats.nextSetBit(1);
+        while (runStart >= 0) {
+            int runEnd = freeSeats.nextClearBit(runStart);
+            if (runEnd - runStart >= blockSize) {
+                return runStart;
+            }
+            runStart = freeSeats.nextSetBit(runEnd);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * A behavioral test run by {@link TestRunner}. The body throws an {@link AssertionError}, e.g. through
+ * {@link Assertions}, or any other exception to fail the test.
+ */
+public class TestCase {
+    private final String name;
+    private final Body body;
+
+    /**
+     * @param name name the test is selected and reported by
+     * @param body code of the test
+     */
+    public TestCase(String name, Body body) {
+        this.name = name;
+        this.body = body;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Runs the test once.
+     *
+     * @throws Exception if the test fails
+     */
+    public void run() throws Exception {
+        this.body.run();
+    }
+
+    /**
+     * Code of a test.
+     */
+    @FunctionalInterface
+    public interface Body {
+        void run() throws Exception;
+    }
+}
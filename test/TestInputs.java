@@ -0,0 +1,148 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Inputs shared by the tests: random command sequences from fixed seeds, so every run of a test does the same work, and
+ * temporary directories for the files the tests produce.
+ */
+public final class TestInputs {
+    private static final int MAX_PRIORITY = 10;
+
+    private TestInputs() {
+    }
+
+    /**
+     * Random commands of every type for a single event, starting with {@code Initialize} and without {@code Quit()}.
+     * The seats are a quarter of the users, so the waitlist fills and cancellations reassign seats.
+     *
+     * @param seed         seed of the commands
+     * @param commandCount number of commands
+     * @param userIdRange  number of distinct users
+     * @return command lines in the syntax of the input files
+     */
+    public static List<String> commands(long seed, int commandCount, int userIdRange) {
+        Random random = new Random(seed);
+        int seatCount = Math.max(userIdRange / 4, 1);
+        List<String> commands = new ArrayList<>(commandCount);
+        commands.add("Initialize(" + seatCount + ")");
+        while (commands.size() < commandCount) {
+            commands.add(randomCommand(random, userIdRange, seatCount));
+        }
+        return commands;
+    }
+
+    /**
+     * Random commands interleaved across events, each prefixed with its {@code Event(eventID)}. Every event starts with
+     * {@code Initialize}, and the input does not end with {@code Quit()}.
+     *
+     * @param seed         seed of the commands
+     * @param commandCount number of commands, including the initializations
+     * @param userIdRange  number of distinct users per event
+     * @param firstEventId ID of the first event, the others following it
+     * @param eventCount   number of events
+     * @return command lines in the syntax of the input files
+     */
+    public static List<String> eventCommands(long seed, int commandCount, int userIdRange, int firstEventId, int eventCount) {
+        Random random = new Random(seed);
+        int seatCount = Math.max(userIdRange / 4, 1);
+        List<String> commands = new ArrayList<>(commandCount);
+        for (int eventId = firstEventId; eventId < firstEventId + eventCount; eventId++) {
+            commands.add("Event(" + eventId + ") Initialize(" + seatCount + ")");
+        }
+        while (commands.size() < commandCount) {
+            int eventId = firstEventId + random.nextInt(eventCount);
+            commands.add("Event(" + eventId + ") " + randomCommand(random, userIdRange, seatCount));
+        }
+        return commands;
+    }
+
+    /**
+     * Responses of the commands when executed inline one after the other, each event on a handler of its own, as the
+     * reference the concurrent ways of executing them are checked against. Lines which are not valid commands are
+     * skipped, as they produce no response.
+     *
+     * @param commands command lines in the syntax of the input files, without {@code Quit()}
+     * @return responses of each valid command, in the order of the commands
+     * @throws IOException if the commands cannot be read
+     */
+    public static List<List<String>> inlineResponses(List<String> commands) throws IOException {
+        Map<Integer, InputActionsHandler> eventHandlers = new HashMap<>();
+        CollectingResponseSink responses = new CollectingResponseSink();
+        List<List<String>> commandResponses = new ArrayList<>(commands.size());
+        try (CommandReader reader = new TextCommandReader(new BufferedReader(new StringReader(String.join("\n", commands))))) {
+            while (reader.nextCommand()) {
+                eventHandlers.computeIfAbsent(reader.getEventId(), eventId -> new InputActionsHandler())
+                        .execute(reader.getCommandType(), reader.getArgument(0), reader.getArgument(1), reader.getArgument(2), responses);
+                commandResponses.add(responses.takeResponses());
+            }
+        }
+        return commandResponses;
+    }
+
+    /**
+     * @return a new empty temporary directory, to be removed with {@link #deleteRecursively(Path)}.
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createTempDirectory() throws IOException {
+        return Files.createTempDirectory("gator-ticket-master-test");
+    }
+
+    /**
+     * Deletes the directory along with everything it contains.
+     *
+     * @param directoryPath directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    public static void deleteRecursively(Path directoryPath) throws IOException {
+        if (!Files.exists(directoryPath)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walkedPaths = Files.walk(directoryPath)) {
+            paths = new ArrayList<>();
+            walkedPaths.sorted(Comparator.reverseOrder()).forEach(paths::add);
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    // A command of any type but Initialize and Quit, mostly reservations and cancellations as in a real input.
+    private static String randomCommand(Random random, int userIdRange, int seatCount) {
+        int userId = 1 + random.nextInt(userIdRange);
+        int seatId = 1 + random.nextInt(seatCount);
+        int choice = random.nextInt(100);
+        if (choice < 35) {
+            return "Reserve(" + userId + ", " + (1 + random.nextInt(MAX_PRIORITY)) + ")";
+        } else if (choice < 60) {
+            return "Cancel(" + seatId + ", " + userId + ")";
+        } else if (choice < 68) {
+            return "UpdatePriority(" + userId + ", " + (1 + random.nextInt(MAX_PRIORITY)) + ")";
+        } else if (choice < 75) {
+            return "ExitWaitlist(" + userId + ")";
+        } else if (choice < 80) {
+            return "SeatStatus(" + seatId + ")";
+        } else if (choice < 85) {
+            return "Available()";
+        } else if (choice < 89) {
+            return "ReserveBatch(" + userId + ", " + (1 + random.nextInt(8)) + ", " + (1 + random.nextInt(MAX_PRIORITY)) + ")";
+        } else if (choice < 92) {
+            return "ReserveBlock(" + userId + ", " + (1 + random.nextInt(4)) + ")";
+        } else if (choice < 95) {
+            return "ReleaseSeats(" + userId + ", " + Math.min(userId + random.nextInt(8), userIdRange) + ")";
+        } else if (choice < 98) {
+            return "AddSeats(" + (1 + random.nextInt(4)) + ")";
+        }
+        return "PrintReservations()";
+    }
+}
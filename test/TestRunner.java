@@ -0,0 +1,91 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the behavioral tests and reports each one as passed or failed, exiting with a non-zero code if any failed.
+ * Without arguments every test runs; with test names as arguments only those run. Each test runs on a thread of its
+ * own and fails if it does not finish in time, so a lost wake-up or a stuck connection fails the run instead of
+ * hanging it. Log messages below WARN and the console output of the code under test are suppressed.
+ */
+public class TestRunner {
+    private static final long TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        List<TestCase> testCases = new ArrayList<>();
+        testCases.addAll(RecoveryTests.all());
+        testCases.addAll(CommandSequencerTests.all());
+        testCases.addAll(BookingServerTests.all());
+        testCases.addAll(BoundedSpscQueueTests.all());
+        testCases.addAll(CommandPipelineTests.all());
+        testCases.addAll(BatchFileProcessorTests.all());
+        testCases.addAll(TreeStorageTests.all());
+        testCases.addAll(SeatPoolTests.all());
+        testCases.addAll(IntIntHashMapTests.all());
+        testCases.addAll(IntTreeMapTests.all());
+
+        List<TestCase> selectedTestCases = new ArrayList<>();
+        if (args.length == 0) {
+            selectedTestCases.addAll(testCases);
+        }
+        for (String testName : args) {
+            TestCase testCase = testCases.stream().filter(candidate -> candidate.getName().equals(testName))
+                    .findFirst().orElse(null);
+            if (Objects.isNull(testCase)) {
+                System.out.println("Error: Unknown test " + testName);
+                System.exit(1);
+            }
+            selectedTestCases.add(testCase);
+        }
+
+        Logger.setLevel(LogLevel.WARN);
+        PrintStream console = System.out;
+        int failedCount = 0;
+        for (TestCase testCase : selectedTestCases) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long startNanos = System.nanoTime();
+            Throwable failure;
+            try {
+                failure = run(testCase);
+            } finally {
+                Logger.flush();
+                System.setOut(console);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (Objects.isNull(failure)) {
+                console.println("PASS " + testCase.getName() + " (" + elapsedMillis + " ms)");
+            } else {
+                failedCount++;
+                console.println("FAIL " + testCase.getName() + " (" + elapsedMillis + " ms)");
+                failure.printStackTrace(console);
+            }
+        }
+
+        console.println((selectedTestCases.size() - failedCount) + " of " + selectedTestCases.size() + " tests passed.");
+        System.exit((failedCount == 0) ? 0 : 1);
+    }
+
+    // Runs the test on its own thread and returns its failure, or null if it passed.
+    private static Throwable run(TestCase testCase) throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                testCase.run();
+            } catch (Throwable throwable) {
+                failure.set(throwable);
+            }
+        }, "test-" + testCase.getName());
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        if (thread.isAlive()) {
+            thread.interrupt();
+            return new AssertionError("Did not finish within " + TIMEOUT_SECONDS + " seconds.");
+        }
+        return failure.get();
+    }
+}
@@ -0,0 +1,72 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests of the reservation tree storages: handlers keeping their reservations in {@link RBTreeMap} and in
+ * {@link ArrayRBTreeMap} write the same output, including when users hold several seats and so appear several times in
+ * the user tree.
+ */
+public class TreeStorageTests {
+    private static final long SEED = 5536;
+    private static final int INPUT_COUNT = 400;
+    private static final int COMMAND_COUNT = 300;
+    // Few users for the seats, so users reserve again while seated and hold several seats.
+    private static final int USER_ID_RANGE = 12;
+    private static final int MAX_SEATS = 1_000;
+    private static final int MAX_WAITLIST_SIZE = 1_000;
+
+    /**
+     * @return the tree storage tests.
+     */
+    public static List<TestCase> all() {
+        return Arrays.asList(
+                new TestCase("treeStoragesCancelSameDuplicateSeat", TreeStorageTests::treeStoragesCancelSameDuplicateSeat),
+                new TestCase("treeStoragesWriteSameOutput", TreeStorageTests::treeStoragesWriteSameOutput));
+    }
+
+    // A user holding three seats cancels two of them: both storages look up the same one of the user's entries.
+    private static void treeStoragesCancelSameDuplicateSeat() throws IOException {
+        assertSameOutput(Arrays.asList("Initialize(2)", "Reserve(4, 1)", "Reserve(4, 1)", "Reserve(4, 1)", "AddSeats(1)",
+                "Cancel(2, 4)", "Cancel(1, 4)", "PrintReservations()"));
+    }
+
+    // Random inputs with repeated user IDs, each processed with both storages.
+    private static void treeStoragesWriteSameOutput() throws IOException {
+        for (int input = 0; input < INPUT_COUNT; input++) {
+            assertSameOutput(TestInputs.commands(SEED + input, COMMAND_COUNT, USER_ID_RANGE));
+        }
+    }
+
+    // Processes the commands with each storage and checks that the outputs are the same bytes.
+    private static void assertSameOutput(List<String> commands) throws IOException {
+        Path directoryPath = TestInputs.createTempDirectory();
+        try {
+            byte[] nodeOutput = output(commands, false, directoryPath.resolve("node.txt"));
+            byte[] arrayOutput = output(commands, true, directoryPath.resolve("array.txt"));
+            Assertions.assertBytesEqual(nodeOutput, arrayOutput, "Output of the array-backed trees for " + commands);
+        } finally {
+            TestInputs.deleteRecursively(directoryPath);
+        }
+    }
+
+    // Output of executing the commands inline on a handler with the storage.
+    private static byte[] output(List<String> commands, boolean arrayBackedTrees, Path outputPath) throws IOException {
+        InputActionsHandler inputActionsHandler = new InputActionsHandler(MAX_SEATS, MAX_WAITLIST_SIZE, arrayBackedTrees);
+        try (CommandReader reader = new TextCommandReader(new BufferedReader(new StringReader(String.join("\n", commands))));
+             ChannelResponseSink responses = new ChannelResponseSink(FileChannel.open(outputPath, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE))) {
+            while (reader.nextCommand()) {
+                inputActionsHandler.execute(reader.getCommandType(), reader.getArgument(0), reader.getArgument(1),
+                        reader.getArgument(2), responses);
+            }
+        }
+        return Files.readAllBytes(outputPath);
+    }
+}